@@ -0,0 +1,326 @@
+package converter.benchmarks;
+
+import converter.ElbonianArabicConverter;
+import converter.ElbonianAscii;
+import converter.ElbonianBulkValidator;
+import converter.ElbonianSort;
+import converter.exceptions.MalformedNumberException;
+import converter.exceptions.ValueOutOfBoundsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the ElbonianArabicConverter. The single value benchmarks walk the whole domain
+ * (1 to 3999) in every invocation, so their scores are per conversion. Run them with the GC profiler
+ * (the default of the jmh task) to see the bytes allocated per conversion.
+ *
+ * @version 3/18/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmarks {
+
+    // The number of values in the Elbonian domain, which each single value benchmark converts once
+    private static final int DOMAIN = 3999;
+
+    /**
+     * Every value of the domain in each of the forms the converter accepts, plus a corpus of malformed input.
+     */
+    @State(Scope.Benchmark)
+    public static class Domain {
+        String[] arabic = new String[DOMAIN];
+        String[] elbonian = new String[DOMAIN];
+        String[] padded = new String[DOMAIN];
+        String[] malformed = new String[DOMAIN];
+        ElbonianArabicConverter[] arabicConverters = new ElbonianArabicConverter[DOMAIN];
+        ElbonianArabicConverter[] elbonianConverters = new ElbonianArabicConverter[DOMAIN];
+        ByteBuffer ascii = ByteBuffer.allocateDirect(DOMAIN * (ElbonianArabicConverter.MAX_ELBONIAN_LENGTH + 1));
+        int[] asciiEnds = new int[DOMAIN];
+
+        @Setup
+        public void setUp() throws MalformedNumberException, ValueOutOfBoundsException {
+            Random random = new Random(42);
+            for (int i = 0; i < DOMAIN; i++) {
+                int value = i + 1;
+                arabic[i] = Integer.toString(value);
+                arabicConverters[i] = new ElbonianArabicConverter(arabic[i]);
+                elbonian[i] = arabicConverters[i].toElbonian();
+                elbonianConverters[i] = new ElbonianArabicConverter(elbonian[i]);
+                padded[i] = "  " + elbonian[i] + "   ";
+                malformed[i] = malform(elbonian[i], random);
+                ElbonianAscii.encodeElbonian(value, ascii);
+                asciiEnds[i] = ascii.position();
+                ascii.put((byte) '\n');
+            }
+        }
+
+        // Breaks a valid numeral in one of the ways the converter rejects
+        private static String malform(String numeral, Random random) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    return numeral + "IIII";
+                case 1:
+                    return "I" + numeral;
+                case 2:
+                    return numeral + "Q";
+                case 3:
+                    return "7" + numeral;
+                default:
+                    return Integer.toString(4000 + random.nextInt(100000));
+            }
+        }
+    }
+
+    /**
+     * Batches of random values for the bulk conversions.
+     */
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        int[] values;
+        String[] numerals;
+        ForkJoinPool pool;
+
+        // The numerals as ASCII lines, one in eight of them made invalid by a byte outside the alphabet
+        byte[] lines;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            values = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = 1 + random.nextInt(DOMAIN);
+            }
+            numerals = ElbonianArabicConverter.toElbonian(values, new BitSet());
+            pool = new ForkJoinPool();
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                text.append(numerals[i]).append(i % 8 == 0 ? "?" : "").append('\n');
+            }
+            lines = text.toString().getBytes(StandardCharsets.US_ASCII);
+            // The tests accept either scanner, so only here does a missing vector API count as a mistake
+            if (!Boolean.getBoolean("converter.vector.disabled") && !ElbonianBulkValidator.isVectorized()) {
+                throw new IllegalStateException("The vector API is not in use; run with --add-modules jdk.incubator.vector"
+                        + " or set converter.vector.disabled to measure the scalar scanner");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void constructArabic(Domain domain, Blackhole blackhole)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        for (String number : domain.arabic) {
+            blackhole.consume(new ElbonianArabicConverter(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void constructElbonian(Domain domain, Blackhole blackhole)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        for (String number : domain.elbonian) {
+            blackhole.consume(new ElbonianArabicConverter(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void canonicalElbonian(Domain domain, Blackhole blackhole)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        for (String number : domain.elbonian) {
+            blackhole.consume(ElbonianArabicConverter.of(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void constructPadded(Domain domain, Blackhole blackhole)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        for (String number : domain.padded) {
+            blackhole.consume(new ElbonianArabicConverter(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void constructMalformed(Domain domain, Blackhole blackhole) {
+        for (String number : domain.malformed) {
+            try {
+                blackhole.consume(new ElbonianArabicConverter(number));
+            }
+            catch (MalformedNumberException | ValueOutOfBoundsException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void toArabic(Domain domain, Blackhole blackhole) {
+        for (ElbonianArabicConverter converter : domain.elbonianConverters) {
+            blackhole.consume(converter.toArabic());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void toElbonian(Domain domain, Blackhole blackhole) {
+        for (ElbonianArabicConverter converter : domain.arabicConverters) {
+            blackhole.consume(converter.toElbonian());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void parseElbonian(Domain domain, Blackhole blackhole)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        for (String number : domain.padded) {
+            blackhole.consume(ElbonianArabicConverter.parseElbonian(number, 0, number.length()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void tryParseMalformed(Domain domain, Blackhole blackhole) {
+        for (String number : domain.malformed) {
+            blackhole.consume(ElbonianArabicConverter.tryParse(number, 0, number.length()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void formatElbonian(Blackhole blackhole) throws ValueOutOfBoundsException {
+        char[] buffer = new char[ElbonianArabicConverter.MAX_ELBONIAN_LENGTH];
+        for (int value = 1; value <= DOMAIN; value++) {
+            blackhole.consume(ElbonianArabicConverter.formatElbonian(value, buffer, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public ByteBuffer encodeAscii(Domain domain) throws ValueOutOfBoundsException {
+        ByteBuffer buffer = domain.ascii;
+        buffer.clear();
+        for (int value = 1; value <= DOMAIN; value++) {
+            ElbonianAscii.encodeElbonian(value, buffer).put((byte) '\n');
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOMAIN)
+    public void decodeAscii(Domain domain, Blackhole blackhole) {
+        ByteBuffer buffer = domain.ascii;
+        int start = 0;
+        for (int i = 0; i < DOMAIN; i++) {
+            int end = domain.asciiEnds[i];
+            blackhole.consume(ElbonianAscii.tryDecode(buffer, start, end));
+            start = end + 1;
+        }
+    }
+
+    @Benchmark
+    public String[] bulkToElbonian(Batch batch) {
+        return ElbonianArabicConverter.toElbonian(batch.values, new BitSet());
+    }
+
+    @Benchmark
+    public int[] bulkToArabic(Batch batch) {
+        return ElbonianArabicConverter.toArabic(batch.numerals, new BitSet());
+    }
+
+    @Benchmark
+    public String[] parallelToElbonian(Batch batch) {
+        return ElbonianArabicConverter.toElbonian(batch.values, new BitSet(), batch.pool);
+    }
+
+    @Benchmark
+    public int[] parallelToArabic(Batch batch) {
+        return ElbonianArabicConverter.toArabic(batch.numerals, new BitSet(), batch.pool);
+    }
+
+    @Benchmark
+    public String[] countingSort(Batch batch) {
+        String[] numerals = batch.numerals.clone();
+        ElbonianSort.sort(numerals);
+        return numerals;
+    }
+
+    @Benchmark
+    public String[] comparatorSort(Batch batch) {
+        String[] numerals = batch.numerals.clone();
+        Arrays.sort(numerals, Comparator.comparingInt(numeral -> {
+            try {
+                return new ElbonianArabicConverter(numeral).toArabic();
+            }
+            catch (MalformedNumberException | ValueOutOfBoundsException e) {
+                return Integer.MAX_VALUE;
+            }
+        }));
+        return numerals;
+    }
+
+    @Benchmark
+    public int[] histogram(Batch batch) {
+        return ElbonianSort.histogram(batch.numerals);
+    }
+
+    @Benchmark
+    public byte[] bulkClassify(Batch batch) {
+        return ElbonianBulkValidator.classify(batch.lines, 0, batch.lines.length, (byte) '\n');
+    }
+
+    @Benchmark
+    public int[] bulkValidate(Batch batch) {
+        return ElbonianBulkValidator.parse(batch.lines, 0, batch.lines.length, (byte) '\n', new BitSet());
+    }
+
+    @Benchmark
+    public int[] tokenDecode(Batch batch) {
+        byte[] lines = batch.lines;
+        int[] values = new int[batch.size];
+        int start = 0;
+        int count = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] == '\n') {
+                int result = ElbonianAscii.tryDecode(lines, start, i);
+                values[count++] = result < 0 ? 0 : result;
+                start = i + 1;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,93 @@
+package converter.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the cold start of converter.ElbonianCli: the wall time from launching a new JVM that converts two
+ * numbers to that JVM exiting. JMH cannot measure this, since it runs inside an already started JVM. Each
+ * configuration is launched in turn, round robin, so a change in machine load affects all of them alike.
+ *
+ * Usage: java converter.benchmarks.StartupBenchmark jar archive [runs]
+ *
+ * @version 3/18/17
+ */
+public final class StartupBenchmark {
+
+    // The class data sharing options of each configuration, and its name in the report
+    private static final String[][] CONFIGURATIONS = {
+            {"-Xshare:off"},
+            {"-Xshare:auto"},
+            {"-Xshare:auto", "-XX:SharedArchiveFile="},
+    };
+    private static final String[] NAMES = {"no CDS", "JDK CDS archive", "AppCDS archive"};
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Launches the CLI repeatedly in each configuration and prints the startup times.
+     *
+     * @param args The CLI jar, the AppCDS archive built from it, and optionally the number of runs of each,
+     * which must be positive
+     * @throws Exception Thrown if a JVM cannot be launched or fails
+     */
+    public static void main(String[] args) throws Exception {
+        String jar = args[0];
+        Path archive = Paths.get(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        if (runs <= 0) {
+            throw new IllegalArgumentException("The number of runs must be positive, not " + runs);
+        }
+        if (!Files.exists(archive)) {
+            throw new IllegalArgumentException("No archive at " + archive + "; run the cdsArchive task first");
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+        // One untimed launch of each warms the file system cache
+        long[][] times = new long[CONFIGURATIONS.length][runs];
+        for (int run = -1; run < runs; run++) {
+            for (int i = 0; i < CONFIGURATIONS.length; i++) {
+                long nanos = launch(command(java, jar, archive, CONFIGURATIONS[i]));
+                if (run >= 0) {
+                    times[i][run] = nanos;
+                }
+            }
+        }
+        for (int i = 0; i < CONFIGURATIONS.length; i++) {
+            long[] sorted = times[i].clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-16s median %6.1f ms   min %6.1f ms   max %6.1f ms%n",
+                    NAMES[i], sorted[runs / 2] / 1e6, sorted[0] / 1e6, sorted[runs - 1] / 1e6);
+        }
+    }
+
+    private static List<String> command(String java, String jar, Path archive, String[] sharing) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        for (String option : sharing) {
+            command.add(option.endsWith("=") ? option + archive : option);
+        }
+        command.addAll(Arrays.asList("-cp", jar, "converter.ElbonianCli", "3999", "MMMDdDLlLVvV"));
+        return command;
+    }
+
+    // Runs a JVM to completion and returns how long it took
+    private static long launch(List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+        long start = System.nanoTime();
+        int status = builder.start().waitFor();
+        long elapsed = System.nanoTime() - start;
+        if (status != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with status " + status);
+        }
+        return elapsed;
+    }
+}
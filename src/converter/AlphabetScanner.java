@@ -0,0 +1,33 @@
+package converter;
+
+/**
+ * Classifies a block of 64 bytes at once, producing one bit per byte for each class of byte a number may
+ * hold. ElbonianBulkValidator turns the bits into tokens. Implementations are stateless, so one instance
+ * can be shared by every thread.
+ *
+ * @version 3/18/17
+ */
+interface AlphabetScanner {
+
+    // The number of bytes in a block, one per bit of a mask
+    int BLOCK = 64;
+
+    // The indexes of the masks filled in by scan
+    int DELIMITERS = 0;
+    int DIGITS = 1;
+    int SYMBOLS = 2;
+    int OTHERS = 3;
+
+    /**
+     * Classifies the 64 bytes of src starting at offset. Bit i of each mask stands for src[offset + i]:
+     * DELIMITERS marks the delimiter, DIGITS marks the digits and signs, SYMBOLS marks the Elbonian symbols
+     * and OTHERS marks every byte outside the alphabet. Spaces and control characters (up to ' ') are in none
+     * of the masks.
+     *
+     * @param src The bytes to classify
+     * @param offset The index of the first byte of the block; the block must fit in src
+     * @param delimiter The byte that separates tokens
+     * @param masks The array of at least four masks to fill in
+     */
+    void scan(byte[] src, int offset, byte delimiter, long[] masks);
+}
@@ -0,0 +1,96 @@
+package converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable CharSequence view over ASCII bytes, so that bytes read from a file or socket can be validated
+ * and parsed without decoding them into a String first. The bytes can live in an array or in a ByteBuffer.
+ * Each byte is read as the character with the same code, which leaves any byte outside ASCII as a character
+ * that no Elbonian or Arabic number contains.
+ *
+ * @version 3/18/17
+ */
+final class AsciiSequence implements CharSequence {
+
+    // The array holding the bytes, or null if they are in buffer
+    private byte[] bytes;
+
+    // The buffer holding the bytes, read with absolute gets, or null if they are in bytes
+    private ByteBuffer buffer;
+
+    private int offset;
+    private int length;
+
+    /**
+     * Creates a view over nothing; call wrap before using it.
+     */
+    AsciiSequence() {
+        this.bytes = new byte[0];
+    }
+
+    /**
+     * Points the view at a range of bytes. The bytes are not copied, so they must not change while the
+     * view is in use.
+     *
+     * @param bytes The array holding the characters
+     * @param offset The index of the first byte
+     * @param length The number of bytes in the view
+     * @return This view, for chaining
+     */
+    AsciiSequence wrap(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Points the view at a range of a buffer. The buffer's position and limit are neither used nor changed.
+     *
+     * @param buffer The buffer holding the characters
+     * @param offset The absolute index of the first byte
+     * @param length The number of bytes in the view
+     * @return This view, for chaining
+     */
+    AsciiSequence wrap(ByteBuffer buffer, int offset, int length) {
+        this.bytes = null;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside a sequence of length " + length);
+        }
+        return (char) ((bytes != null ? bytes[offset + index] : buffer.get(offset + index)) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range " + start + " to " + end + " is outside a sequence of length " + length);
+        }
+        AsciiSequence sequence = new AsciiSequence();
+        return bytes != null
+                ? sequence.wrap(bytes, offset + start, end - start)
+                : sequence.wrap(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
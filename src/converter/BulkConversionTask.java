@@ -0,0 +1,115 @@
+package converter;
+
+import java.util.BitSet;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task that converts a range of a batch by splitting it in halves until the pieces are small
+ * enough to convert on one thread. Every piece writes its results straight into the shared output array at
+ * the input's own indexes, so the output keeps the input order without a merge step. Failures are returned
+ * as a bitmap relative to the start of the task's range and are merged as the tasks join, so a bad record
+ * only marks its own index and never stops the other pieces.
+ *
+ * @version 3/18/17
+ */
+// ForkJoinTask is Serializable, but these tasks live only for one invoke and are never serialized
+@SuppressWarnings("serial")
+abstract class BulkConversionTask extends RecursiveTask<BitSet> {
+
+    // Ranges at most this long are converted without splitting further
+    static final int THRESHOLD = 1 << 13;
+
+    // The index of the first record of the range (inclusive)
+    final int from;
+
+    // The index after the last record of the range (exclusive)
+    final int to;
+
+    BulkConversionTask(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a task of the same kind for part of this task's range.
+     *
+     * @param from The index of the first record (inclusive)
+     * @param to The index after the last record (exclusive)
+     * @return The new task
+     */
+    abstract BulkConversionTask split(int from, int to);
+
+    /**
+     * Converts the whole range on the current thread.
+     *
+     * @param failures A bitmap in which the index, relative to from, of every failed record is set
+     */
+    abstract void convert(BitSet failures);
+
+    @Override
+    protected BitSet compute() {
+        if (to - from <= THRESHOLD) {
+            BitSet failures = new BitSet();
+            convert(failures);
+            return failures;
+        }
+        int middle = (from + to) >>> 1;
+        BulkConversionTask left = split(from, middle);
+        left.fork();
+        BitSet rightFailures = split(middle, to).compute();
+        BitSet failures = left.join();
+        int offset = middle - from;
+        for (int i = rightFailures.nextSetBit(0); i >= 0; i = rightFailures.nextSetBit(i + 1)) {
+            failures.set(offset + i);
+        }
+        return failures;
+    }
+
+    /**
+     * Converts values to their Elbonian form.
+     */
+    static final class ToElbonian extends BulkConversionTask {
+        private final int[] values;
+        private final String[] numerals;
+
+        ToElbonian(int[] values, String[] numerals, int from, int to) {
+            super(from, to);
+            this.values = values;
+            this.numerals = numerals;
+        }
+
+        @Override
+        BulkConversionTask split(int from, int to) {
+            return new ToElbonian(values, numerals, from, to);
+        }
+
+        @Override
+        void convert(BitSet failures) {
+            ElbonianArabicConverter.toElbonian(values, from, to, numerals, failures);
+        }
+    }
+
+    /**
+     * Converts Elbonian or Arabic numbers to their values.
+     */
+    static final class ToArabic extends BulkConversionTask {
+        private final CharSequence[] numbers;
+        private final int[] values;
+
+        ToArabic(CharSequence[] numbers, int[] values, int from, int to) {
+            super(from, to);
+            this.numbers = numbers;
+            this.values = values;
+        }
+
+        @Override
+        BulkConversionTask split(int from, int to) {
+            return new ToArabic(numbers, values, from, to);
+        }
+
+        @Override
+        void convert(BitSet failures) {
+            ElbonianArabicConverter.toArabic(numbers, from, to, values, failures);
+        }
+    }
+}
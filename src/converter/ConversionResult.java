@@ -0,0 +1,111 @@
+package converter;
+
+/**
+ * Decodes the int results returned by the exception-free methods of ElbonianArabicConverter, such as
+ * tryParse and tryFormat. A result that is not negative is a successful outcome (the value that was parsed,
+ * or the offset after the characters that were written). A negative result is an error that holds the rule
+ * that was broken and the index of the offending character, both of which can be read with the methods of
+ * this class. Nothing is allocated to report an error. The index is packed into the result alongside the
+ * rule, so an index above MAX_POSITION, which only very long inputs reach, is reported as MAX_POSITION.
+ *
+ * @version 3/18/17
+ */
+public final class ConversionResult {
+
+    // The input contains a character that is neither a digit nor an Elbonian numeral
+    public static final int BAD_CHARACTER = 1;
+
+    // The input mixes Arabic digits with letters
+    public static final int MIXED_FORMS = 2;
+
+    // The Elbonian numerals are not in the proper order
+    public static final int ORDERING = 3;
+
+    // An Elbonian numeral is used more often than the rules allow
+    public static final int REPETITION = 4;
+
+    // The value cannot be written in Elbonian
+    public static final int OUT_OF_BOUNDS = 5;
+
+    // The input holds nothing but spaces
+    public static final int EMPTY = 6;
+
+    // The destination does not have room for the output
+    public static final int NO_ROOM = 7;
+
+    // The largest index an error can report, as the index shares the result with the three bits of the rule
+    public static final int MAX_POSITION = Integer.MAX_VALUE >> 3;
+
+    private ConversionResult() {
+    }
+
+    /**
+     * Creates an error result.
+     *
+     * @param rule One of the rule constants of this class
+     * @param position The index of the offending character, which is clamped to MAX_POSITION
+     * @return The negative result holding both
+     */
+    static int error(int rule, int position) {
+        return -(Math.min(position, MAX_POSITION) << 3 | rule);
+    }
+
+    /**
+     * Checks whether a result is an error.
+     *
+     * @param result A result returned by one of the exception-free methods
+     * @return True if the conversion failed
+     */
+    public static boolean isError(int result) {
+        return result < 0;
+    }
+
+    /**
+     * Returns the rule broken by a failed conversion.
+     *
+     * @param result An error result
+     * @return One of the rule constants of this class
+     */
+    public static int rule(int result) {
+        return -result & 7;
+    }
+
+    /**
+     * Returns the index of the character that broke a rule. For OUT_OF_BOUNDS this is the start of the
+     * number, and for NO_ROOM it is the offset the output would have been written at. An index above
+     * MAX_POSITION is reported as MAX_POSITION.
+     *
+     * @param result An error result
+     * @return The index of the offending character in the input
+     */
+    public static int position(int result) {
+        return -result >>> 3;
+    }
+
+    /**
+     * Returns a description of a rule. These are the messages of the exceptions thrown by the converter.
+     *
+     * @param rule One of the rule constants of this class
+     * @return A description of the rule
+     */
+    public static String message(int rule) {
+        switch (rule) {
+            case BAD_CHARACTER:
+                return "String contains characters outside the elbonian alphabet";
+            case MIXED_FORMS:
+                return "String contains both numbers and letters";
+            case ORDERING:
+                return "Elbonian numerals not in proper order";
+            case REPETITION:
+                return "Too many of one elbonian number";
+            case OUT_OF_BOUNDS:
+                return "The value given is outside 1 to 3999, not writable in Elbonian";
+            case EMPTY:
+                return "String does not contain a number";
+            case NO_ROOM:
+                return "Not enough room to write the number";
+            default:
+                return "Unknown rule";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package converter;
+
+/**
+ * Receives an event for every call to the ElbonianArabicConverter constructor, toArabic and toElbonian,
+ * together with how long the call took. Register a listener with ElbonianArabicConverter.setListener.
+ * While no listener is registered the converter does not read the clock or make any calls, so the hooks
+ * cost nothing.
+ *
+ * Listeners are called on the thread that used the converter, so they must be thread safe and should
+ * return quickly.
+ *
+ * @version 3/18/17
+ */
+public interface ConverterListener {
+
+    /**
+     * Called after a converter has been constructed.
+     *
+     * @param nanos How long the constructor took, in nanoseconds
+     */
+    void constructed(long nanos);
+
+    /**
+     * Called when the constructor rejects its input, just before the exception is thrown.
+     *
+     * @param rule The rule that was broken, one of the rule constants of ConversionResult
+     * @param nanos How long the constructor took up to the rejection, in nanoseconds
+     */
+    void rejected(int rule, long nanos);
+
+    /**
+     * Called after toArabic has returned its value.
+     *
+     * @param nanos How long the call took, in nanoseconds
+     */
+    void convertedToArabic(long nanos);
+
+    /**
+     * Called after toElbonian has returned its value.
+     *
+     * @param nanos How long the call took, in nanoseconds
+     */
+    void convertedToElbonian(long nanos);
+}
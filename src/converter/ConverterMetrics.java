@@ -0,0 +1,144 @@
+package converter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A ConverterListener that counts calls and rejections and keeps a latency histogram for each operation.
+ * The histograms have one bucket per power of two nanoseconds, so recording a call is a couple of atomic
+ * increments and the memory used never grows.
+ *
+ * @version 3/18/17
+ */
+public final class ConverterMetrics implements ConverterListener {
+
+    // Identifies the constructor, including the calls that were rejected
+    public static final int CONSTRUCT = 0;
+
+    // Identifies toArabic
+    public static final int TO_ARABIC = 1;
+
+    // Identifies toElbonian
+    public static final int TO_ELBONIAN = 2;
+
+    // The number of latency buckets; bucket b counts calls that took from 2^(b-1) to 2^b - 1 nanoseconds
+    public static final int BUCKETS = 64;
+
+    private static final String[] OPERATION_NAMES = {"construct", "toArabic", "toElbonian"};
+
+    // BUCKETS latency counts for each operation, one operation after the other
+    private final AtomicLongArray latencies = new AtomicLongArray(OPERATION_NAMES.length * BUCKETS);
+
+    // Rejection counts, indexed by the rule constants of ConversionResult
+    private final AtomicLongArray rejections = new AtomicLongArray(8);
+
+    @Override
+    public void constructed(long nanos) {
+        record(CONSTRUCT, nanos);
+    }
+
+    @Override
+    public void rejected(int rule, long nanos) {
+        rejections.incrementAndGet(rule);
+        record(CONSTRUCT, nanos);
+    }
+
+    @Override
+    public void convertedToArabic(long nanos) {
+        record(TO_ARABIC, nanos);
+    }
+
+    @Override
+    public void convertedToElbonian(long nanos) {
+        record(TO_ELBONIAN, nanos);
+    }
+
+    /**
+     * Returns how many times an operation was called.
+     *
+     * @param operation CONSTRUCT, TO_ARABIC or TO_ELBONIAN
+     * @return The number of calls
+     */
+    public long calls(int operation) {
+        long calls = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            calls += latencies.get(operation * BUCKETS + bucket);
+        }
+        return calls;
+    }
+
+    /**
+     * Returns a copy of the latency histogram of an operation.
+     *
+     * @param operation CONSTRUCT, TO_ARABIC or TO_ELBONIAN
+     * @return BUCKETS counts, where bucket b counts the calls that took less than 2^b nanoseconds but not
+     * less than 2^(b-1)
+     */
+    public long[] histogram(int operation) {
+        long[] histogram = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            histogram[bucket] = latencies.get(operation * BUCKETS + bucket);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns an upper bound on a latency percentile of an operation, to the precision of the histogram.
+     *
+     * @param operation CONSTRUCT, TO_ARABIC or TO_ELBONIAN
+     * @param percentile The percentile, from 0 to 100
+     * @return The upper end of the bucket holding the percentile in nanoseconds, or 0 if there were no calls
+     */
+    public long percentile(int operation, double percentile) {
+        long[] histogram = histogram(operation);
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= rank && seen > 0) {
+                return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns how many times the constructor rejected its input for breaking a rule.
+     *
+     * @param rule One of the rule constants of ConversionResult
+     * @return The number of rejections
+     */
+    public long rejections(int rule) {
+        return rejections.get(rule);
+    }
+
+    /**
+     * Summarizes the calls, median and 99th percentile latency of each operation, and the rejections.
+     *
+     * @return A one line summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        for (int operation = 0; operation < OPERATION_NAMES.length; operation++) {
+            summary.append(OPERATION_NAMES[operation]).append(": ").append(calls(operation))
+                    .append(" calls, p50 < ").append(percentile(operation, 50))
+                    .append(" ns, p99 < ").append(percentile(operation, 99)).append(" ns; ");
+        }
+        summary.append("rejected:");
+        for (int rule = ConversionResult.BAD_CHARACTER; rule <= ConversionResult.NO_ROOM; rule++) {
+            if (rejections.get(rule) > 0) {
+                summary.append(' ').append(ConversionResult.message(rule)).append(" = ").append(rejections.get(rule));
+            }
+        }
+        return summary.toString();
+    }
+
+    private void record(int operation, long nanos) {
+        int bucket = nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos);
+        latencies.incrementAndGet(operation * BUCKETS + Math.min(bucket, BUCKETS - 1));
+    }
+}
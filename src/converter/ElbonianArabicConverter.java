@@ -3,6 +3,9 @@ package converter;
 import converter.exceptions.MalformedNumberException;
 import converter.exceptions.ValueOutOfBoundsException;
 
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * This class implements a converter that takes a string that represents a number in either the
  * Elbonian or Arabic numeral form. This class has methods that will return a value in the chosen form.
@@ -11,9 +14,29 @@ import converter.exceptions.ValueOutOfBoundsException;
  */
 public class ElbonianArabicConverter {
 
+    // The length of the longest Elbonian numeral (MMMDCCCLXXXVIII)
+    public static final int MAX_ELBONIAN_LENGTH = 15;
+
     // A string that holds the number (Elbonian or Arabic) you would like to convert
     private final String number;
 
+    // The value of the number, found while validating it (0 if the number is empty)
+    private final int value;
+
+    // The listener told about every call, or null when nobody is listening
+    private static volatile ConverterListener listener;
+
+    // The canonical converter of each value handed out by of, filled in on first use (index 0 is the empty number)
+    private static final ElbonianArabicConverter[] CANONICAL = new ElbonianArabicConverter[ElbonianTable.MAX_VALUE + 1];
+
+    // The number of slots of TEXT_CACHE; a power of two, so a hash picks a pair of slots with a mask
+    private static final int TEXT_CACHE_SIZE = 8192;
+
+    // Recently seen input strings of of and their canonical converters, so that a repeated string skips
+    // validation. A hash picks a pair of adjacent slots and a string may sit in either one, which keeps
+    // strings that share a pair from pushing each other out; when both are taken the second is replaced.
+    private static final CachedText[] TEXT_CACHE = new CachedText[TEXT_CACHE_SIZE];
+
 
     /**
      * Constructor for the ElbonianArabic class that takes a string. The string should contain a valid
@@ -30,383 +53,408 @@ public class ElbonianArabicConverter {
      */
     public ElbonianArabicConverter(String number) throws MalformedNumberException, ValueOutOfBoundsException {
 
-        // TODO check to see if the number is valid, then set it equal to the string
-        removeSpaces(number);
-
-        char[] charArray =number.toCharArray();
-
-        //if a string contains both a number and a letter
-        String numRegex = ".*[0-9].*";
-        String alphaRegex = ".*[A-Z].*";
-        if (number.matches(numRegex) && number.matches(alphaRegex)){
-            throw new MalformedNumberException("String contains both numbers and letters");
+        ConverterListener listener = ElbonianArabicConverter.listener;
+        long start = listener == null ? 0 : System.nanoTime();
+        this.value = valueOf(number, listener, start);
+        this.number = number.trim();
+        if (listener != null) {
+            listener.constructed(System.nanoTime() - start);
         }
+    }
 
-        //if a string contains a letter out side of elbonian numerals
-        String alphaRegex2 = ".*[A-B].*";
-        String alphaRegex3 = ".*[E-H].*";
-        String alphaRegex4 = ".*[J-K].*";
-        String alphaRegex5 = ".*[N-U].*";
-        String alphaRegex6 = ".*[W-W].*";
-        String alphaRegex7 = ".*[Y-Z].*";
-        String alphaRegex8 = ".*[a-c].*";
-        String alphaRegex9 = ".*[e-k].*";
-        String alphaRegex10 = ".*[m-u].*";
-        String alphaRegex11 = ".*[w-z].*";
-
-        if (number.matches(alphaRegex2) || number.matches(alphaRegex3) || number.matches(alphaRegex4) || number.matches(alphaRegex5) || number.matches(alphaRegex6) || number.matches(alphaRegex7) || number.matches(alphaRegex8) || number.matches(alphaRegex9) || number.matches(alphaRegex10) || number.matches(alphaRegex11)){
-            throw new MalformedNumberException("String contains characters outside the elbonian alphabet");
-        }
+    // Creates a converter for a value that has already been validated
+    private ElbonianArabicConverter(String number, int value) {
+        this.number = number;
+        this.value = value;
+    }
 
-        //if a smaller elbonian number is placed before a larger one
-        for (int x = number.length() -1; x >= 0; x--) {
-            char c = number.charAt(x);
-            //if an elbonian lowercase letter does not come before an upper case of the same letter
-            if (c == 'v' && number.charAt(x+1) != 'V'){
-                throw new MalformedNumberException("Elbonian numerals not in proper order");
-            }
-            else if (c == 'd' && number.charAt(x+1) != 'D'){
-                throw new MalformedNumberException("Elbonian numerals not in proper order");
-            }
-            else if (c == 'l' && number.charAt(x+1) != 'L'){
-                throw new MalformedNumberException("Elbonian numerals not in proper order");
+    /**
+     * Returns a shared converter for a number, accepting the same input as the constructor. Every input with
+     * the same value gets the same canonical instance. Converters are immutable, so sharing them is safe.
+     * Recently seen strings are remembered in a fixed-size table keyed by the text, so a repeated string
+     * costs a hash and a comparison instead of a validation pass; other strings are validated once and then
+     * take the canonical instance of their value. Both tables are bounded no matter how many distinct strings
+     * (such as Arabic numbers with leading zeros) are passed in, and rejected input is never cached.
+     *
+     * @param number A string that represents either a Elbonian or Arabic number.
+     * @return The canonical converter for the value of the number
+     * @throws MalformedNumberException Thrown if the value is an Elbonian number that does not conform
+     * to the rules of the Elbonian number system. Leading and trailing spaces should not throw an error.
+     * @throws ValueOutOfBoundsException Thrown if the value is an Arabic number that cannot be represented
+     * in the Elbonian number system.
+     */
+    public static ElbonianArabicConverter of(String number) throws MalformedNumberException, ValueOutOfBoundsException {
+        ConverterListener listener = ElbonianArabicConverter.listener;
+        long start = listener == null ? 0 : System.nanoTime();
+        int hash = number.hashCode();
+        int slot = (hash ^ hash >>> 16) & TEXT_CACHE_SIZE - 2;
+        CachedText first = TEXT_CACHE[slot];
+        CachedText second = TEXT_CACHE[slot + 1];
+        ElbonianArabicConverter converter;
+        if (first != null && first.text.equals(number)) {
+            converter = first.converter;
+        }
+        else if (second != null && second.text.equals(number)) {
+            converter = second.converter;
+        }
+        else {
+            int value = valueOf(number, listener, start);
+            converter = CANONICAL[value];
+            if (converter == null) {
+                // Threads racing here may each create an instance; they are interchangeable, and the final
+                // fields make either one safe to publish without a lock
+                converter = new ElbonianArabicConverter(ElbonianTable.toElbonian(value), value);
+                CANONICAL[value] = converter;
             }
+            // Entries are immutable, so they are safe to publish without a lock as well
+            TEXT_CACHE[first == null ? slot : slot + 1] = new CachedText(number, converter);
+        }
+        if (listener != null) {
+            listener.constructed(System.nanoTime() - start);
+        }
+        return converter;
+    }
 
-            for (int i = number.length() - 1; i > x; i--){
-                char b = number.charAt(i);
-                if (c == 'I' && b != 'I'){
-                    throw new MalformedNumberException("Elbonian numerals not in proper order");
-                }
-                else if (c == 'V' && b != 'I' && b != 'v' && (i == (x+2) && b != 'V')){
-                    throw new MalformedNumberException("Elbonian numerals not in proper order");
-                }
-                else if (c == 'X' && b != 'I' && b != 'v' && b != 'V' && b != 'X'){
-                    throw new MalformedNumberException("Elbonian numerals not in proper order");
-                }
-                else if (c == 'L' && b != 'I' && b != 'v' && b != 'V' && b != 'X' && b != 'l' && (i == (x+2) && b != 'L')){
-                    throw new MalformedNumberException("Elbonian numerals not in proper order");
-                }
-                else if (c == 'C' && b != 'I' && b != 'v' && b != 'V' && b != 'X' && b != 'l' && b != 'L' && b != 'C'){
-                    throw new MalformedNumberException("Elbonian numerals not in proper order");
-                }
-                else if (c == 'D' && b != 'I' && b != 'v' && b != 'V' && b != 'X' && b != 'l' && b != 'L' && b != 'C' && b != 'd' && (i == (x+2) && b != 'D')){
-                    throw new MalformedNumberException("Elbonian numerals not in proper order");
+    // Validates a number for the constructor or of, telling the listener about a rejection
+    private static int valueOf(String number, ConverterListener listener, long start)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        // A single pass over the input validates it and finds its value at the same time
+        int result = ElbonianValidator.validate(number, 0, number.length());
+        if (ConversionResult.isError(result)) {
+            // An empty string (or one with only spaces) is accepted and has no value
+            if (ConversionResult.rule(result) != ConversionResult.EMPTY) {
+                if (listener != null) {
+                    listener.rejected(ConversionResult.rule(result), System.nanoTime() - start);
                 }
+                throwFor(result);
             }
+            return 0;
+        }
+        return result;
+    }
 
+    /**
+     * Converts the number to an Arabic numeral or returns the current value as an int if it is already
+     * in the Arabic form.
+     *
+     * @return An arabic value
+     */
+    public int toArabic() {
+        ConverterListener listener = ElbonianArabicConverter.listener;
+        if (listener != null) {
+            long start = System.nanoTime();
+            int arabic = value;
+            listener.convertedToArabic(System.nanoTime() - start);
+            return arabic;
+        }
+        return value;
+    }
+
+    /**
+     * Converts the number to an Elbonian numeral or returns the current value if it is already in the Elbonian form.
+     *
+     * @return An Elbonian value
+     */
+    public String toElbonian() {
+        ConverterListener listener = ElbonianArabicConverter.listener;
+        if (listener != null) {
+            long start = System.nanoTime();
+            String elbonian = elbonian();
+            listener.convertedToElbonian(System.nanoTime() - start);
+            return elbonian;
+        }
+        return elbonian();
+    }
+
+    /**
+     * Registers the listener that is told about every construction, rejection and conversion, replacing
+     * any listener registered before. Pass null to remove the listener, which turns the hooks off again.
+     *
+     * @param listener The listener to register, such as a ConverterMetrics, or null
+     */
+    public static void setListener(ConverterListener listener) {
+        ElbonianArabicConverter.listener = listener;
+    }
+
+    private String elbonian() {
+        if (value == 0) {
+            return number;
         }
+        return ElbonianTable.toElbonian(value);
+    }
 
-        //if a elbonian number contains 4 of any M,C,X,I
-        //if an elbonian number contains more that 2 of any D,L,V
-        //if an elbonian number contains more than one of any d,l,v
-        int M = 0;
-        int C = 0;
-        int X = 0;
-        int I = 0;
-
-        int D = 0;
-        int L = 0;
-        int V = 0;
-
-        int d = 0;
-        int l = 0;
-        int v = 0;
-        for (int x = number.length() -1; x >= 0; x--) {
-            char c = number.charAt(x);
-
-            if (c == 'M'){
-                M += 1;
+    /**
+     * Converts a batch of values to their Elbonian form. A value that cannot be represented does not stop
+     * the batch: its index is set in the failures bitmap and its entry in the result is null.
+     *
+     * @param values The values to convert
+     * @param failures A bitmap in which the index of every value that could not be converted is set
+     * @return The Elbonian form of each value, in the same order as the values
+     */
+    public static String[] toElbonian(int[] values, BitSet failures) {
+        String[] numerals = new String[values.length];
+        toElbonian(values, 0, values.length, numerals, failures);
+        return numerals;
+    }
+
+    /**
+     * Converts a batch of values to their Elbonian form in parallel. The batch is split into pieces that
+     * the threads of the pool convert independently; the result is the same as for the sequential
+     * version, in the same order, and a value that cannot be represented only marks its own index.
+     *
+     * @param values The values to convert
+     * @param failures A bitmap in which the index of every value that could not be converted is set
+     * @param pool The pool whose threads convert the pieces
+     * @return The Elbonian form of each value, in the same order as the values
+     */
+    public static String[] toElbonian(int[] values, BitSet failures, ForkJoinPool pool) {
+        String[] numerals = new String[values.length];
+        failures.or(pool.invoke(new BulkConversionTask.ToElbonian(values, numerals, 0, values.length)));
+        return numerals;
+    }
+
+    /**
+     * Converts a batch of Elbonian or Arabic numbers to their values. A number that is malformed or out of
+     * bounds does not stop the batch: its index is set in the failures bitmap and its entry in the result is 0.
+     *
+     * @param numbers The numbers to convert; leading and trailing spaces are ignored
+     * @param failures A bitmap in which the index of every number that could not be converted is set
+     * @return The value of each number, in the same order as the numbers
+     */
+    public static int[] toArabic(CharSequence[] numbers, BitSet failures) {
+        int[] values = new int[numbers.length];
+        toArabic(numbers, 0, numbers.length, values, failures);
+        return values;
+    }
+
+    /**
+     * Converts a batch of Elbonian or Arabic numbers to their values in parallel. The batch is split into
+     * pieces that the threads of the pool convert independently; the result is the same as for the
+     * sequential version, in the same order, and a bad number only marks its own index.
+     *
+     * @param numbers The numbers to convert; leading and trailing spaces are ignored
+     * @param failures A bitmap in which the index of every number that could not be converted is set
+     * @param pool The pool whose threads convert the pieces
+     * @return The value of each number, in the same order as the numbers
+     */
+    public static int[] toArabic(CharSequence[] numbers, BitSet failures, ForkJoinPool pool) {
+        int[] values = new int[numbers.length];
+        failures.or(pool.invoke(new BulkConversionTask.ToArabic(numbers, values, 0, numbers.length)));
+        return values;
+    }
+
+    // Converts values[from, to) into numerals at the same indexes; failures are set relative to from
+    static void toElbonian(int[] values, int from, int to, String[] numerals, BitSet failures) {
+        for (int i = from; i < to; i++) {
+            int value = values[i];
+            if (value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+                failures.set(i - from);
             }
-            else if (c == 'C'){
-                C += 1;
+            else {
+                numerals[i] = ElbonianTable.toElbonian(value);
             }
-            else if (c == 'X'){
-                X += 1;
+        }
+    }
+
+    // Converts numbers[from, to) into values at the same indexes; failures are set relative to from
+    static void toArabic(CharSequence[] numbers, int from, int to, int[] values, BitSet failures) {
+        for (int i = from; i < to; i++) {
+            CharSequence number = numbers[i];
+            int result = number == null ? -1 : ElbonianValidator.validate(number, 0, number.length());
+            if (ConversionResult.isError(result)) {
+                failures.set(i - from);
             }
-            else if (c == 'I'){
-                I += 1;
+            else {
+                values[i] = result;
             }
+        }
+    }
 
-            if (c == 'D'){
-                D += 1;
+    /**
+     * Appends the Elbonian form of a batch of values to a StringBuilder, separated by a delimiter. A value
+     * that cannot be represented leaves an empty field, so every field still lines up with its value, and
+     * its index is set in the failures bitmap.
+     *
+     * @param values The values to convert
+     * @param delimiter The character written between two fields
+     * @param dst The builder to append to
+     * @param failures A bitmap in which the index of every value that could not be converted is set
+     * @return The builder, for chaining
+     */
+    public static StringBuilder toElbonian(int[] values, char delimiter, StringBuilder dst, BitSet failures) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                dst.append(delimiter);
             }
-            else if (c == 'L'){
-                L += 1;
+            int value = values[i];
+            if (value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+                failures.set(i);
             }
-            else if (c == 'V'){
-                V += 1;
+            else {
+                dst.append(ElbonianTable.toElbonian(value));
             }
+        }
+        return dst;
+    }
 
-            if (c == 'd'){
-                d += 1;
-            }
-            else if (c == 'l'){
-                l += 1;
+    /**
+     * Writes the Elbonian form of a batch of values into a character array, separated by a delimiter. A
+     * value that cannot be represented leaves an empty field and its index is set in the failures bitmap.
+     *
+     * @param values The values to convert
+     * @param delimiter The character written between two fields
+     * @param dst The array to write into; values.length * (MAX_ELBONIAN_LENGTH + 1) characters always suffice
+     * @param off The index of dst to start writing at
+     * @param failures A bitmap in which the index of every value that could not be converted is set
+     * @return The index of dst after the last character written
+     */
+    public static int toElbonian(int[] values, char delimiter, char[] dst, int off, BitSet failures) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                dst[off++] = delimiter;
             }
-            else if (c == 'v'){
-                v += 1;
+            int value = values[i];
+            if (value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+                failures.set(i);
             }
-
-            if (M >= 4 || C >= 4 || X >= 4 || I >= 4 || D >= 3 || L >= 3 || V >= 3 || d >= 2 || l >= 2 || v >= 2){
-                throw new MalformedNumberException("Too many of one elbonian number");
+            else {
+                String numeral = ElbonianTable.toElbonian(value);
+                numeral.getChars(0, numeral.length(), dst, off);
+                off += numeral.length();
             }
         }
+        return off;
+    }
 
-        //checks to see if the input is smaller than 4000
-        try {
-            if (new Integer(number) > 3999 || new Integer(number) < 1) {
-                throw new ValueOutOfBoundsException("The Value given was greater than 3999, Not writable in Elbonian ");
-            }
-        }
-        catch(NumberFormatException e){}
-        this.number = removeSpaces(number);
+    /**
+     * Parses a number held in a range of characters without creating a converter. Like the constructor,
+     * this accepts the Elbonian or the Arabic form and ignores leading and trailing spaces, but the
+     * spaces are skipped by index so nothing is copied. Unlike the constructor, an empty range is
+     * rejected because it has no value.
+     *
+     * @param text The characters holding the number, such as a slice of a larger buffer
+     * @param from The index of the first character (inclusive)
+     * @param to The index after the last character (exclusive)
+     * @return The value of the number
+     * @throws MalformedNumberException Thrown if the range is empty or is not a valid Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the range is an Arabic number that cannot be represented
+     * in the Elbonian number system.
+     */
+    public static int parseElbonian(CharSequence text, int from, int to)
+            throws MalformedNumberException, ValueOutOfBoundsException {
+        return checkResult(ElbonianValidator.validate(text, from, to));
     }
 
     /**
-     * Converts the number to an Arabic numeral or returns the current value as an int if it is already
-     * in the Arabic form.
+     * Writes the Elbonian form of a value into a character array without creating a String.
      *
-     * @return An arabic value
+     * @param value The value to write, from 1 to 3999
+     * @param dst The array to write into; at least MAX_ELBONIAN_LENGTH characters should be free
+     * @param off The index of dst to start writing at
+     * @return The index of dst after the last character written
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
      */
-    public int toArabic() {
-        int arabic = 0;
-        if (number.contains("VvV")){
-            arabic = arabic + 9;
-        }
-        else if (number.contains("VIII")){
-            arabic = arabic + 8;
-        }
-        else if (number.contains("VII")){
-            arabic = arabic + 7;
-        }
-        else if (number.contains("VI")){
-            arabic = arabic + 6;
-        }
-        else if (number.contains("vV")){
-            arabic = arabic + 4;
-        }
-        else if (number.contains("V")){
-            arabic = arabic + 5;
-        }
-        else if (number.contains("III")){
-            arabic = arabic + 3;
-        }
-        else if (number.contains("II")){
-            arabic = arabic + 2;
-        }
-        else if (number.contains("I")){
-            arabic = arabic + 1;
-        }
+    public static int formatElbonian(int value, char[] dst, int off) throws ValueOutOfBoundsException {
+        String numeral = ElbonianTable.toElbonian(checkBounds(value));
+        numeral.getChars(0, numeral.length(), dst, off);
+        return off + numeral.length();
+    }
 
-        if (number.contains("LlL")){
-            arabic = arabic + 90;
-        }
-        else if (number.contains("LXXX")){
-            arabic = arabic + 80;
-        }
-        else if (number.contains("LXX")){
-            arabic = arabic + 70;
-        }
-        else if (number.contains("LX")){
-            arabic = arabic + 60;
-        }
-        else if (number.contains("lL")){
-            arabic = arabic + 40;
-        }
-        else if (number.contains("L")){
-            arabic = arabic + 50;
-        }
-        else if (number.contains("XXX")){
-            arabic = arabic + 30;
-        }
-        else if (number.contains("XX")){
-            arabic = arabic + 20;
-        }
-        else if (number.contains("X")){
-            arabic = arabic + 10;
-        }
+    /**
+     * Appends the Elbonian form of a value to a StringBuilder without creating a String.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param dst The builder to append to
+     * @return The builder, for chaining
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static StringBuilder formatElbonian(int value, StringBuilder dst) throws ValueOutOfBoundsException {
+        return dst.append(ElbonianTable.toElbonian(checkBounds(value)));
+    }
 
-        if (number.contains("DdD")){
-            arabic = arabic + 900;
-        }
-        else if (number.contains("DCCC")){
-            arabic = arabic + 800;
-        }
-        else if (number.contains("DCC")){
-            arabic = arabic + 700;
-        }
-        else if (number.contains("DC")){
-            arabic = arabic + 600;
-        }
-        else if (number.contains("dD")){
-            arabic = arabic + 400;
-        }
-        else if (number.contains("D")){
-            arabic = arabic + 500;
-        }
-        else if (number.contains("CCC")){
-            arabic = arabic + 300;
-        }
-        else if (number.contains("CC")){
-            arabic = arabic + 200;
-        }
-        else if (number.contains("C")){
-            arabic = arabic + 100;
-        }
+    /**
+     * Parses a number held in a range of characters without throwing. This accepts the same input as
+     * parseElbonian, but reports a rejected number through the result instead of an exception, so invalid
+     * input costs no more than valid input.
+     *
+     * @param text The characters holding the number, such as a slice of a larger buffer
+     * @param from The index of the first character (inclusive)
+     * @param to The index after the last character (exclusive)
+     * @return The value of the number, or a negative error that can be decoded with ConversionResult
+     */
+    public static int tryParse(CharSequence text, int from, int to) {
+        return ElbonianValidator.validate(text, from, to);
+    }
 
-        if (number.contains("MMM")){
-            arabic = arabic + 3000;
-        }
-        else if (number.contains("MM")){
-            arabic = arabic + 2000;
+    /**
+     * Writes the Elbonian form of a value into a character array without throwing.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param dst The array to write into
+     * @param off The index of dst to start writing at
+     * @return The index of dst after the last character written, or a negative error that can be decoded
+     * with ConversionResult (OUT_OF_BOUNDS, or NO_ROOM if the numeral does not fit in dst)
+     */
+    public static int tryFormat(int value, char[] dst, int off) {
+        if (value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+            return ConversionResult.error(ConversionResult.OUT_OF_BOUNDS, off);
         }
-        else if (number.contains("M")){
-            arabic = arabic + 1000;
+        String numeral = ElbonianTable.toElbonian(value);
+        if (off < 0 || dst.length - off < numeral.length()) {
+            return ConversionResult.error(ConversionResult.NO_ROOM, Math.max(off, 0));
         }
-
-        return arabic;
+        numeral.getChars(0, numeral.length(), dst, off);
+        return off + numeral.length();
     }
 
     /**
-     * Converts the number to an Elbonian numeral or returns the current value if it is already in the Elbonian form.
+     * Appends the Elbonian form of a value to a StringBuilder without throwing.
      *
-     * @return An Elbonian value
+     * @param value The value to write, from 1 to 3999
+     * @param dst The builder to append to
+     * @return The number of characters appended, or a negative error that can be decoded with ConversionResult
      */
-    public String toElbonian() {
-        try {
-            new Integer(number);
-            return toElbonian(number, "");
-        }
-        catch(NumberFormatException e){
-            return number;
+    public static int tryFormat(int value, StringBuilder dst) {
+        if (value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+            return ConversionResult.error(ConversionResult.OUT_OF_BOUNDS, dst.length());
         }
+        String numeral = ElbonianTable.toElbonian(value);
+        dst.append(numeral);
+        return numeral.length();
     }
 
-    private String removeSpaces(String input){
-        char[] inputArray = input.toCharArray();
-        char[] outputArray = new char[input.length()];
+    // Returns the value if it can be written in Elbonian, otherwise throws
+    static int checkBounds(int value) throws ValueOutOfBoundsException {
+        if (value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+            throw new ValueOutOfBoundsException(ConversionResult.message(ConversionResult.OUT_OF_BOUNDS));
+        }
+        return value;
+    }
 
-        for(int i=0; i<input.length(); i++){
-            if(inputArray[i] != ' '){
-                outputArray[i] = inputArray[i];
-            }
+    // Returns a successful ConversionResult, or throws the exception that matches an error
+    static int checkResult(int result) throws MalformedNumberException, ValueOutOfBoundsException {
+        if (ConversionResult.isError(result)) {
+            throwFor(result);
         }
-       System.out.println(new String(outputArray));
-        return new String(outputArray);
+        return result;
     }
 
-    private String toElbonian(String currentArray, String returnValue){
-        switch(currentArray.length()) {
-            case 0:
-                return returnValue;
-            case 1:
-                switch(currentArray.toCharArray()[0]) {
-                    case '1':
-                        returnValue = returnValue + "I";
-                        break;
-                    case '2':
-                        returnValue = returnValue + "II";
-                        break;
-                    case '3':
-                        returnValue = returnValue + "III";
-                        break;
-                    case '4':
-                        returnValue = returnValue + "vV";
-                        break;
-                    case '5':
-                        returnValue = returnValue + "V";
-                        break;
-                    case '6':
-                        returnValue = returnValue + "VI";
-                        break;
-                    case '7':
-                        returnValue = returnValue + "VII";
-                        break;
-                    case '8':
-                        returnValue = returnValue + "VIII";
-                        break;
-                    case '9':
-                        returnValue = returnValue + "VvV";
-                        break;
-                }
-                break;
-            case 2:
-                switch(currentArray.toCharArray()[0]) {
-                    case '1':
-                        returnValue = returnValue + "X";
-                        break;
-                    case '2':
-                        returnValue = returnValue + "XX";
-                        break;
-                    case '3':
-                        returnValue = returnValue + "XXX";
-                        break;
-                    case '4':
-                        returnValue = returnValue + "lL";
-                        break;
-                    case '5':
-                        returnValue = returnValue + "L";
-                        break;
-                    case '6':
-                        returnValue = returnValue + "LX";
-                        break;
-                    case '7':
-                        returnValue = returnValue + "LXX";
-                        break;
-                    case '8':
-                        returnValue = returnValue + "LXXX";
-                        break;
-                    case '9':
-                        returnValue = returnValue + "LlL";
-                        break;
-                }
-                break;
-            case 3:
-                switch(currentArray.toCharArray()[0]) {
-                    case '1':
-                        returnValue = returnValue + "C";
-                        break;
-                    case '2':
-                        returnValue = returnValue + "CC";
-                        break;
-                    case '3':
-                        returnValue = returnValue + "CCC";
-                        break;
-                    case '4':
-                        returnValue = returnValue + "dD";
-                        break;
-                    case '5':
-                        returnValue = returnValue + "D";
-                        break;
-                    case '6':
-                        returnValue = returnValue + "DC";
-                        break;
-                    case '7':
-                        returnValue = returnValue + "DCC";
-                        break;
-                    case '8':
-                        returnValue = returnValue + "DCCC";
-                        break;
-                    case '9':
-                        returnValue = returnValue + "DdD";
-                        break;
-                }
-                break;
-            case 4:
-                switch(currentArray.toCharArray()[0]) {
-                    case '1' :
-                        returnValue = returnValue + "M";
-                        break;
-                    case '2' :
-                        returnValue = returnValue + "MM";
-                        break;
-                    case '3' :
-                        returnValue = returnValue + "MMM";
-                        break;
-                }
-                break;
+    private static void throwFor(int result) throws MalformedNumberException, ValueOutOfBoundsException {
+        int rule = ConversionResult.rule(result);
+        if (rule == ConversionResult.OUT_OF_BOUNDS) {
+            throw new ValueOutOfBoundsException(ConversionResult.message(rule));
         }
-        return toElbonian(currentArray.substring(1), returnValue);
+        throw new MalformedNumberException(ConversionResult.message(rule));
     }
 
+    // An input string of of and the converter it stands for
+    private static final class CachedText {
+        private final String text;
+        private final ElbonianArabicConverter converter;
+
+        CachedText(String text, ElbonianArabicConverter converter) {
+            this.text = text;
+            this.converter = converter;
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package converter;
+
+import converter.exceptions.MalformedNumberException;
+import converter.exceptions.ValueOutOfBoundsException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes numbers straight to ASCII bytes and decodes them straight from ASCII bytes. Both Elbonian
+ * numerals and Arabic digits are pure ASCII, so the bytes of every value are precomputed once and copied
+ * into the destination, and input bytes are validated in place. No String is created and no charset is
+ * involved in either direction.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianAscii {
+
+    // The length of the longest Arabic number in the Elbonian domain (3999)
+    public static final int MAX_ARABIC_LENGTH = 4;
+
+    // The ASCII bytes of the Elbonian form of every value, indexed by value
+    private static final byte[][] ELBONIAN = new byte[ElbonianTable.MAX_VALUE + 1][];
+
+    // The ASCII bytes of the Arabic form of every value, indexed by value
+    private static final byte[][] ARABIC = new byte[ElbonianTable.MAX_VALUE + 1][];
+
+    static {
+        for (int value = ElbonianTable.MIN_VALUE; value <= ElbonianTable.MAX_VALUE; value++) {
+            ELBONIAN[value] = ascii(ElbonianTable.toElbonian(value));
+            ARABIC[value] = ascii(Integer.toString(value));
+        }
+    }
+
+    private ElbonianAscii() {
+    }
+
+    /**
+     * Writes the Elbonian form of a value into a byte array.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param dst The array to write into; MAX_ELBONIAN_LENGTH bytes always suffice
+     * @param off The index of dst to start writing at
+     * @return The index of dst after the last byte written
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static int encodeElbonian(int value, byte[] dst, int off) throws ValueOutOfBoundsException {
+        return copy(ELBONIAN[ElbonianArabicConverter.checkBounds(value)], dst, off);
+    }
+
+    /**
+     * Writes the Elbonian form of a value at the position of a buffer, advancing the position.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param dst The buffer to write into
+     * @return The buffer, for chaining
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static ByteBuffer encodeElbonian(int value, ByteBuffer dst) throws ValueOutOfBoundsException {
+        return dst.put(ELBONIAN[ElbonianArabicConverter.checkBounds(value)]);
+    }
+
+    /**
+     * Writes the Elbonian form of a value to a stream.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param out The stream to write to
+     * @throws IOException Thrown if the stream cannot be written
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static void encodeElbonian(int value, OutputStream out) throws IOException, ValueOutOfBoundsException {
+        byte[] numeral = ELBONIAN[ElbonianArabicConverter.checkBounds(value)];
+        out.write(numeral, 0, numeral.length);
+    }
+
+    /**
+     * Writes the Arabic form of a value into a byte array.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param dst The array to write into; MAX_ARABIC_LENGTH bytes always suffice
+     * @param off The index of dst to start writing at
+     * @return The index of dst after the last byte written
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static int encodeArabic(int value, byte[] dst, int off) throws ValueOutOfBoundsException {
+        return copy(ARABIC[ElbonianArabicConverter.checkBounds(value)], dst, off);
+    }
+
+    /**
+     * Writes the Arabic form of a value at the position of a buffer, advancing the position.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param dst The buffer to write into
+     * @return The buffer, for chaining
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static ByteBuffer encodeArabic(int value, ByteBuffer dst) throws ValueOutOfBoundsException {
+        return dst.put(ARABIC[ElbonianArabicConverter.checkBounds(value)]);
+    }
+
+    /**
+     * Writes the Arabic form of a value to a stream.
+     *
+     * @param value The value to write, from 1 to 3999
+     * @param out The stream to write to
+     * @throws IOException Thrown if the stream cannot be written
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static void encodeArabic(int value, OutputStream out) throws IOException, ValueOutOfBoundsException {
+        byte[] digits = ARABIC[ElbonianArabicConverter.checkBounds(value)];
+        out.write(digits, 0, digits.length);
+    }
+
+    /**
+     * Parses an Elbonian or Arabic number from a range of ASCII bytes in a buffer, ignoring leading and
+     * trailing spaces. The range is given by absolute indexes, so the buffer's position and limit are
+     * neither used nor changed.
+     *
+     * @param src The buffer holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return The value of the number
+     * @throws MalformedNumberException Thrown if the range is empty or is not a valid Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the range is an Arabic number that cannot be represented
+     * in the Elbonian number system.
+     */
+    public static int decode(ByteBuffer src, int from, int to) throws MalformedNumberException, ValueOutOfBoundsException {
+        return ElbonianArabicConverter.checkResult(tryDecode(src, from, to));
+    }
+
+    /**
+     * Parses an Elbonian or Arabic number from a range of ASCII bytes in a buffer without throwing.
+     *
+     * @param src The buffer holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return The value of the number, or a negative error that can be decoded with ConversionResult; its
+     * position is an absolute index of the buffer
+     */
+    public static int tryDecode(ByteBuffer src, int from, int to) {
+        return ElbonianValidator.validate(src, from, to);
+    }
+
+    /**
+     * Parses an Elbonian or Arabic number from a range of ASCII bytes, ignoring leading and trailing spaces.
+     *
+     * @param src The array holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return The value of the number
+     * @throws MalformedNumberException Thrown if the range is empty or is not a valid Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the range is an Arabic number that cannot be represented
+     * in the Elbonian number system.
+     */
+    public static int decode(byte[] src, int from, int to) throws MalformedNumberException, ValueOutOfBoundsException {
+        return ElbonianArabicConverter.checkResult(tryDecode(src, from, to));
+    }
+
+    /**
+     * Parses an Elbonian or Arabic number from a range of ASCII bytes without throwing.
+     *
+     * @param src The array holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return The value of the number, or a negative error that can be decoded with ConversionResult
+     */
+    public static int tryDecode(byte[] src, int from, int to) {
+        return ElbonianValidator.validate(src, from, to);
+    }
+
+    // Returns the shared Elbonian bytes of a value that is already known to be in bounds; do not modify them
+    static byte[] elbonianBytes(int value) {
+        return ELBONIAN[value];
+    }
+
+    // Returns the shared Arabic bytes of a value that is already known to be in bounds; do not modify them
+    static byte[] arabicBytes(int value) {
+        return ARABIC[value];
+    }
+
+    private static int copy(byte[] bytes, byte[] dst, int off) {
+        System.arraycopy(bytes, 0, dst, off, bytes.length);
+        return off + bytes.length;
+    }
+
+    private static byte[] ascii(String text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return bytes;
+    }
+}
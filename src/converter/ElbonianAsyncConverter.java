@@ -0,0 +1,186 @@
+package converter;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts numbers asynchronously for callers on many threads. Requests go into a bounded queue and are
+ * converted in micro-batches by a single worker thread, so the cost of handing work between threads is
+ * paid once per batch rather than once per number, and the converter never uses more than one thread.
+ * Requests for the same input that are in flight at the same time share a single conversion.
+ *
+ * The futures complete with the same results the ElbonianArabicConverter constructor and its conversions
+ * give, or exceptionally with the MalformedNumberException or ValueOutOfBoundsException they would throw.
+ * A request that finds the queue full, or the converter closed, completes exceptionally with a
+ * RejectedExecutionException.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianAsyncConverter implements Closeable {
+
+    // The number of requests that may wait in the queue, used by the no-argument constructor
+    public static final int DEFAULT_QUEUE_DEPTH = 4096;
+
+    // The most requests converted in one batch, used by the no-argument constructor
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request> queue;
+
+    // The value of every input that is queued or being converted, shared by all of its requests
+    private final ConcurrentHashMap<String, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    private final Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * Creates a converter that batches whatever requests are already waiting, without waiting for more.
+     */
+    public ElbonianAsyncConverter() {
+        this(DEFAULT_QUEUE_DEPTH, DEFAULT_BATCH_SIZE, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a converter.
+     *
+     * @param queueDepth The number of requests that may wait to be converted before new ones are rejected
+     * @param batchSize The most requests converted in one batch
+     * @param maxWait How long a batch that is not full may wait for more requests; 0 never waits
+     * @param unit The unit of maxWait
+     */
+    public ElbonianAsyncConverter(int queueDepth, int batchSize, long maxWait, TimeUnit unit) {
+        if (queueDepth <= 0 || batchSize <= 0 || maxWait < 0) {
+            throw new IllegalArgumentException("The queue depth and batch size must be positive and the wait not negative");
+        }
+        this.batchSize = batchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.queue = new ArrayBlockingQueue<>(queueDepth);
+        this.worker = new Thread(this::convertBatches, "elbonian-async");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Converts a number to its Arabic value, like constructing an ElbonianArabicConverter and calling toArabic.
+     *
+     * @param number The number, in Elbonian or Arabic form
+     * @return A future of the value, which is 0 for an empty number
+     */
+    public CompletableFuture<Integer> toArabic(String number) {
+        return submit(number).copy();
+    }
+
+    /**
+     * Converts a number to its Elbonian form, like constructing an ElbonianArabicConverter and calling toElbonian.
+     *
+     * @param number The number, in Elbonian or Arabic form
+     * @return A future of the Elbonian numeral, which is empty for an empty number
+     */
+    public CompletableFuture<String> toElbonian(String number) {
+        return submit(number).thenApply(ElbonianTable::toElbonian);
+    }
+
+    /**
+     * Stops accepting requests. The requests already queued are still converted.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+    }
+
+    private CompletableFuture<Integer> submit(String number) {
+        CompletableFuture<Integer> created = new CompletableFuture<>();
+        CompletableFuture<Integer> shared = inFlight.putIfAbsent(number, created);
+        if (shared != null) {
+            return shared;
+        }
+        Request request = new Request(number, created);
+        if (closed || !queue.offer(request)) {
+            reject(request, closed ? "The converter is closed" : "The request queue is full");
+        }
+        else if (closed && queue.remove(request)) {
+            // The converter closed between the check and the offer, and the worker may already have finished
+            reject(request, "The converter is closed");
+        }
+        return created;
+    }
+
+    private void reject(Request request, String message) {
+        inFlight.remove(request.number, request.value);
+        request.value.completeExceptionally(new RejectedExecutionException(message));
+    }
+
+    private void convertBatches() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                if (batch.size() < batchSize && maxWaitNanos > 0) {
+                    fill(batch);
+                }
+                convert(batch);
+            }
+        }
+        catch (InterruptedException e) {
+            // Closed; finish whatever was taken and whatever is still queued
+        }
+        queue.drainTo(batch);
+        convert(batch);
+    }
+
+    // Waits up to maxWaitNanos for more requests until the batch is full
+    private void fill(List<Request> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        long remaining = maxWaitNanos;
+        while (batch.size() < batchSize && remaining > 0) {
+            Request request = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (request == null) {
+                return;
+            }
+            batch.add(request);
+            queue.drainTo(batch, batchSize - batch.size());
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void convert(List<Request> batch) {
+        for (Request request : batch) {
+            // Stop sharing before completing, so a request that arrives afterwards is converted afresh
+            inFlight.remove(request.number, request.value);
+            int result = ElbonianValidator.validate(request.number, 0, request.number.length());
+            if (!ConversionResult.isError(result) || ConversionResult.rule(result) == ConversionResult.EMPTY) {
+                request.value.complete(ConversionResult.isError(result) ? 0 : result);
+            }
+            else {
+                try {
+                    ElbonianArabicConverter.checkResult(result);
+                }
+                catch (Exception e) {
+                    request.value.completeExceptionally(e);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    // A number waiting to be converted, and the future of its value
+    private static final class Request {
+        private final String number;
+        private final CompletableFuture<Integer> value;
+
+        Request(String number, CompletableFuture<Integer> value) {
+            this.number = number;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package converter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Validates large batches of delimited numbers in ASCII, such as a whole file of lines or a request of
+ * comma separated values, without looking at the bytes one token at a time. The batch is classified in
+ * blocks of 64 bytes, each producing bit masks of the delimiters, digits, Elbonian symbols and bytes outside
+ * the alphabet, and tokens are then classified from the masks alone. Only the tokens that can still be
+ * numbers are handed on to full parsing.
+ *
+ * The blocks are classified with the vector API when the jdk.incubator.vector module is present, which on
+ * Java 17 means starting the JVM with --add-modules jdk.incubator.vector. Otherwise, or when the system
+ * property converter.vector.disabled is true, they are classified with a table lookup per byte.
+ *
+ * Tokens are separated by the delimiter. A delimiter at the very end of the batch does not start another
+ * token, so a file whose last line ends in a newline has one token per line.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianBulkValidator {
+
+    // The kind of a token holding nothing, or only spaces
+    public static final byte EMPTY = 0;
+
+    // The kind of a token holding only digits, signs and spaces
+    public static final byte ARABIC = 1;
+
+    // The kind of a token holding only Elbonian symbols and spaces
+    public static final byte ELBONIAN = 2;
+
+    // The kind of a token holding a byte outside the alphabet, or both digits and Elbonian symbols
+    public static final byte INVALID = 3;
+
+    // Classifies blocks with the vector API if it can be loaded, or else with SCALAR
+    private static final AlphabetScanner SCANNER = loadScanner();
+
+    // The table lookup scanner, which also classifies the partial block at the end of a batch
+    private static final ScalarScanner SCALAR = new ScalarScanner();
+
+    private ElbonianBulkValidator() {
+    }
+
+    /**
+     * Checks whether blocks are classified with the vector API.
+     *
+     * @return True if the vector API is in use, false if the scalar fallback is
+     */
+    public static boolean isVectorized() {
+        return !(SCANNER instanceof ScalarScanner);
+    }
+
+    /**
+     * Classifies every token of a batch without parsing any of them.
+     *
+     * @param src The bytes of the batch
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @param delimiter The byte that separates tokens
+     * @return The kind of each token, in order: EMPTY, ARABIC, ELBONIAN or INVALID
+     */
+    public static byte[] classify(byte[] src, int from, int to, byte delimiter) {
+        Tokens tokens = scan(src, from, to, delimiter);
+        return Arrays.copyOf(tokens.kinds, tokens.count);
+    }
+
+    /**
+     * Classifies every token of a batch held in a buffer, reading it with absolute gets.
+     *
+     * @param src The buffer holding the batch
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @param delimiter The byte that separates tokens
+     * @return The kind of each token, in order: EMPTY, ARABIC, ELBONIAN or INVALID
+     */
+    public static byte[] classify(ByteBuffer src, int from, int to, byte delimiter) {
+        Tokens tokens = scan(src, from, to, delimiter);
+        return Arrays.copyOf(tokens.kinds, tokens.count);
+    }
+
+    /**
+     * Validates and parses every token of a batch. Tokens classified as INVALID or EMPTY fail without being
+     * parsed; the others are fully parsed and may still fail.
+     *
+     * @param src The bytes of the batch
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @param delimiter The byte that separates tokens
+     * @param failures The set to record the indexes of tokens that are not valid numbers into
+     * @return The value of each token, in order, or 0 for a token that failed
+     */
+    public static int[] parse(byte[] src, int from, int to, byte delimiter, BitSet failures) {
+        Tokens tokens = scan(src, from, to, delimiter);
+        return tokens.parse(new AsciiSequence().wrap(src, 0, to), from, failures);
+    }
+
+    /**
+     * Validates and parses every token of a batch held in a buffer, reading it with absolute gets.
+     *
+     * @param src The buffer holding the batch
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @param delimiter The byte that separates tokens
+     * @param failures The set to record the indexes of tokens that are not valid numbers into
+     * @return The value of each token, in order, or 0 for a token that failed
+     */
+    public static int[] parse(ByteBuffer src, int from, int to, byte delimiter, BitSet failures) {
+        Tokens tokens = scan(src, from, to, delimiter);
+        return tokens.parse(new AsciiSequence().wrap(src, 0, to), from, failures);
+    }
+
+    private static Tokens scan(byte[] src, int from, int to, byte delimiter) {
+        Tokens tokens = new Tokens((to - from) / 4 + 1);
+        long[] masks = new long[4];
+        int offset = from;
+        for (; to - offset >= AlphabetScanner.BLOCK; offset += AlphabetScanner.BLOCK) {
+            SCANNER.scan(src, offset, delimiter, masks);
+            tokens.add(masks, offset, AlphabetScanner.BLOCK);
+        }
+        SCALAR.scan(src, offset, to - offset, delimiter, masks);
+        tokens.add(masks, offset, to - offset);
+        tokens.finish(from, to);
+        return tokens;
+    }
+
+    private static Tokens scan(ByteBuffer src, int from, int to, byte delimiter) {
+        if (src.hasArray()) {
+            // Scan the backing array in place, then shift the token ends back to buffer indexes
+            int base = src.arrayOffset();
+            Tokens tokens = scan(src.array(), base + from, base + to, delimiter);
+            for (int i = 0; i < tokens.count; i++) {
+                tokens.ends[i] -= base;
+            }
+            return tokens;
+        }
+        Tokens tokens = new Tokens((to - from) / 4 + 1);
+        long[] masks = new long[4];
+        byte[] block = new byte[AlphabetScanner.BLOCK];
+        int offset = from;
+        for (; to - offset >= AlphabetScanner.BLOCK; offset += AlphabetScanner.BLOCK) {
+            src.get(offset, block, 0, AlphabetScanner.BLOCK);
+            SCANNER.scan(block, 0, delimiter, masks);
+            tokens.add(masks, offset, AlphabetScanner.BLOCK);
+        }
+        src.get(offset, block, 0, to - offset);
+        SCALAR.scan(block, 0, to - offset, delimiter, masks);
+        tokens.add(masks, offset, to - offset);
+        tokens.finish(from, to);
+        return tokens;
+    }
+
+    // The vector scanner is compiled separately against the incubator module, so it is only looked up by name
+    private static AlphabetScanner loadScanner() {
+        if (!Boolean.getBoolean("converter.vector.disabled")) {
+            try {
+                return (AlphabetScanner) Class.forName("converter.VectorAlphabetScanner")
+                        .getDeclaredConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                // Not on the class path, or jdk.incubator.vector was not added; use the table lookup
+            }
+        }
+        return new ScalarScanner();
+    }
+
+    // Builds the list of tokens from the masks of consecutive blocks
+    private static final class Tokens {
+        private byte[] kinds;
+        private int[] ends;
+        private int count;
+
+        // What the current token holds so far, as bits of DIGITS, SYMBOLS and OTHERS
+        private int holds;
+
+        Tokens(int capacity) {
+            this.kinds = new byte[capacity];
+            this.ends = new int[capacity];
+        }
+
+        // Takes in the first length bits of the masks of a block that starts at base
+        void add(long[] masks, int base, int length) {
+            long delimiters = masks[AlphabetScanner.DELIMITERS];
+            int start = 0;
+            while (true) {
+                int end = delimiters == 0 ? length : Long.numberOfTrailingZeros(delimiters);
+                if (end > start) {
+                    long range = (end == Long.SIZE ? -1L : (1L << end) - 1) & (-1L << start);
+                    holds |= (masks[AlphabetScanner.DIGITS] & range) != 0 ? 1 << AlphabetScanner.DIGITS : 0;
+                    holds |= (masks[AlphabetScanner.SYMBOLS] & range) != 0 ? 1 << AlphabetScanner.SYMBOLS : 0;
+                    holds |= (masks[AlphabetScanner.OTHERS] & range) != 0 ? 1 << AlphabetScanner.OTHERS : 0;
+                }
+                if (delimiters == 0) {
+                    return;
+                }
+                end(base + end);
+                delimiters &= delimiters - 1;
+                start = end + 1;
+            }
+        }
+
+        // Ends the last token, unless the batch is empty or ends with a delimiter
+        void finish(int from, int to) {
+            int start = count == 0 ? from : ends[count - 1] + 1;
+            if (start < to) {
+                end(to);
+            }
+        }
+
+        private void end(int end) {
+            if (count == kinds.length) {
+                kinds = Arrays.copyOf(kinds, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            byte kind;
+            if ((holds & 1 << AlphabetScanner.OTHERS) != 0) {
+                kind = INVALID;
+            }
+            else if ((holds & 1 << AlphabetScanner.DIGITS) != 0) {
+                kind = (holds & 1 << AlphabetScanner.SYMBOLS) != 0 ? INVALID : ARABIC;
+            }
+            else {
+                kind = (holds & 1 << AlphabetScanner.SYMBOLS) != 0 ? ELBONIAN : EMPTY;
+            }
+            kinds[count] = kind;
+            ends[count++] = end;
+            holds = 0;
+        }
+
+        // Parses the tokens that may be numbers, through a view whose indexes match the batch
+        int[] parse(AsciiSequence view, int from, BitSet failures) {
+            int[] values = new int[count];
+            int start = from;
+            for (int i = 0; i < count; i++) {
+                int result = kinds[i] == ARABIC || kinds[i] == ELBONIAN
+                        ? ElbonianValidator.validate(view, start, ends[i])
+                        : -1;
+                if (ConversionResult.isError(result)) {
+                    failures.set(i);
+                }
+                else {
+                    values[i] = result;
+                }
+                start = ends[i] + 1;
+            }
+            return values;
+        }
+    }
+
+    // Classifies each byte with a lookup table
+    static final class ScalarScanner implements AlphabetScanner {
+
+        // The class of every byte value as bits: 1 for a digit or sign, 2 for a symbol, 4 for any other byte
+        // outside the alphabet, and none for spaces
+        private static final byte[] CLASSES = new byte[256];
+
+        static {
+            Arrays.fill(CLASSES, (byte) 4);
+            for (int c = 0; c <= ' '; c++) {
+                CLASSES[c] = 0;
+            }
+            for (int c = '0'; c <= '9'; c++) {
+                CLASSES[c] = 1;
+            }
+            CLASSES['+'] = 1;
+            CLASSES['-'] = 1;
+            for (int i = 0; i < ElbonianTable.SYMBOLS.length(); i++) {
+                CLASSES[ElbonianTable.SYMBOLS.charAt(i)] = 2;
+            }
+        }
+
+        @Override
+        public void scan(byte[] src, int offset, byte delimiter, long[] masks) {
+            scan(src, offset, BLOCK, delimiter, masks);
+        }
+
+        // Classifies the first length bytes of a block, leaving the higher bits of the masks clear
+        void scan(byte[] src, int offset, int length, byte delimiter, long[] masks) {
+            long delimiters = 0;
+            long digits = 0;
+            long symbols = 0;
+            long others = 0;
+            for (int i = 0; i < length; i++) {
+                byte b = src[offset + i];
+                long bit = 1L << i;
+                if (b == delimiter) {
+                    delimiters |= bit;
+                }
+                else {
+                    int classes = CLASSES[b & 0xFF];
+                    if (classes == 1) {
+                        digits |= bit;
+                    }
+                    else if (classes == 2) {
+                        symbols |= bit;
+                    }
+                    else if (classes == 4) {
+                        others |= bit;
+                    }
+                }
+            }
+            masks[DELIMITERS] = delimiters;
+            masks[DIGITS] = digits;
+            masks[SYMBOLS] = symbols;
+            masks[OTHERS] = others;
+        }
+    }
+}
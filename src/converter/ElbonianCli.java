@@ -0,0 +1,82 @@
+package converter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+/**
+ * A command line tool for converting a few numbers from a short-lived process. Each argument, or each line
+ * of standard input when there are no arguments, is printed in its other form: Arabic numbers in Elbonian
+ * and Elbonian numbers in Arabic. A number that cannot be converted is reported on standard error, and the
+ * process then exits with status 1.
+ *
+ * The tool is built for startup time rather than throughput. It loads only the classes it needs, builds no
+ * tables up front (the package tables fill themselves in on first use), and avoids lambdas, string
+ * concatenation and formatting, each of which would bootstrap invokedynamic machinery before the first
+ * number is converted. Starting it from a class data sharing archive (see the cdsArchive build task) also
+ * skips loading and verifying those classes.
+ *
+ * Usage: java converter.ElbonianCli [number ...]
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianCli {
+
+    private ElbonianCli() {
+    }
+
+    /**
+     * Converts the numbers given as arguments, or read from standard input.
+     *
+     * @param args The numbers to convert; when empty, one number is read from each line of standard input
+     * @throws IOException Thrown if standard input cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        PrintStream out = System.out;
+        boolean failed = false;
+        if (args.length > 0) {
+            for (String number : args) {
+                failed |= !convert(number, out);
+            }
+        }
+        else {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            String line;
+            while ((line = in.readLine()) != null) {
+                failed |= !convert(line, out);
+            }
+        }
+        out.flush();
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    // Prints the other form of one number, or reports why it cannot be converted; returns whether it converted
+    private static boolean convert(String number, PrintStream out) {
+        int result = ElbonianValidator.validate(number, 0, number.length());
+        if (ConversionResult.isError(result)) {
+            int rule = ConversionResult.rule(result);
+            if (rule == ConversionResult.EMPTY) {
+                out.println();
+                return true;
+            }
+            PrintStream err = System.err;
+            err.print(number);
+            err.print(": ");
+            err.print(ConversionResult.message(rule));
+            err.print(" (column ");
+            err.print(ConversionResult.position(result) + 1);
+            err.println(')');
+            return false;
+        }
+        if (ElbonianValidator.isArabic(number, 0, number.length())) {
+            out.println(ElbonianTable.toElbonian(result));
+        }
+        else {
+            out.println(result);
+        }
+        return true;
+    }
+}
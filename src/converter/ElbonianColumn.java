@@ -0,0 +1,229 @@
+package converter;
+
+import converter.exceptions.MalformedNumberException;
+import converter.exceptions.ValueOutOfBoundsException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * A growable column of numbers from the Elbonian domain that stores each entry as a 16-bit code instead
+ * of a String or a converter. The code of an entry is its value (1 to 3999 fits in 12 bits), and its text
+ * is only rendered when it is read, from the table shared by the whole package. A million entries take
+ * 2 MB, against tens of megabytes for the same numerals held as Strings.
+ *
+ * The codes are kept on the heap, or off the heap in a direct buffer so that they add nothing to the
+ * work of the garbage collector. A column is not safe for use by several threads at once.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianColumn {
+
+    // The capacity used by the no-argument constructor
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final boolean direct;
+
+    // The codes of the entries; the entries are codes[0] to codes[size - 1]
+    private ShortBuffer codes;
+    private int size;
+
+    /**
+     * Creates an empty column on the heap.
+     */
+    public ElbonianColumn() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Creates an empty column.
+     *
+     * @param capacity The number of entries to make room for up front
+     * @param direct True to keep the codes in a direct buffer off the heap, false to keep them on the heap
+     */
+    public ElbonianColumn(int capacity, boolean direct) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity must not be negative, not " + capacity);
+        }
+        this.direct = direct;
+        this.codes = allocate(capacity);
+    }
+
+    /**
+     * Returns the number of entries in the column.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the codes are kept off the heap.
+     *
+     * @return True if the codes are in a direct buffer
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Adds a value to the end of the column.
+     *
+     * @param value The value to add, from 1 to 3999
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public void append(int value) throws ValueOutOfBoundsException {
+        ElbonianArabicConverter.checkBounds(value);
+        ensureCapacity(size + 1);
+        codes.put(size++, (short) value);
+    }
+
+    /**
+     * Adds a number in Elbonian or Arabic form to the end of the column, ignoring leading and trailing spaces.
+     *
+     * @param number The number to add
+     * @throws MalformedNumberException Thrown if the number is empty or is not a valid Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the number is an Arabic number that cannot be represented
+     * in the Elbonian number system.
+     */
+    public void append(CharSequence number) throws MalformedNumberException, ValueOutOfBoundsException {
+        append(ElbonianArabicConverter.parseElbonian(number, 0, number.length()));
+    }
+
+    /**
+     * Adds many numbers in Elbonian or Arabic form to the end of the column. Numbers that cannot be converted,
+     * including null elements, are not added, and their indexes are set in failures.
+     *
+     * @param numbers The numbers to add
+     * @param failures The set to record the indexes of numbers that could not be converted into
+     * @return The number of entries added
+     */
+    public int appendAll(CharSequence[] numbers, BitSet failures) {
+        ensureCapacity(size + numbers.length);
+        int added = 0;
+        for (int i = 0; i < numbers.length; i++) {
+            CharSequence number = numbers[i];
+            int result = number == null ? -1 : ElbonianValidator.validate(number, 0, number.length());
+            if (ConversionResult.isError(result)) {
+                failures.set(i);
+            }
+            else {
+                codes.put(size++, (short) result);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the value of an entry.
+     *
+     * @param index The index of the entry
+     * @return The value, from 1 to 3999
+     * @throws IndexOutOfBoundsException Thrown if there is no entry at index
+     */
+    public int get(int index) {
+        return codes.get(Objects.checkIndex(index, size));
+    }
+
+    /**
+     * Returns the Elbonian form of an entry, looked up from the shared table.
+     *
+     * @param index The index of the entry
+     * @return The Elbonian numeral
+     * @throws IndexOutOfBoundsException Thrown if there is no entry at index
+     */
+    public String getElbonian(int index) {
+        return ElbonianTable.toElbonian(get(index));
+    }
+
+    /**
+     * Copies the values of all entries into a new array.
+     *
+     * @return The values, in column order
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = codes.get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Appends the Elbonian form of every entry to a builder, with a delimiter between entries.
+     *
+     * @param delimiter The character to put between entries
+     * @param dst The builder to append to
+     * @return The builder, for chaining
+     */
+    public StringBuilder exportElbonian(char delimiter, StringBuilder dst) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                dst.append(delimiter);
+            }
+            dst.append(ElbonianTable.toElbonian(codes.get(i)));
+        }
+        return dst;
+    }
+
+    /**
+     * Writes the Elbonian form of every entry to a stream as ASCII, with a delimiter after each entry.
+     *
+     * @param delimiter The byte to write after each entry, such as a newline
+     * @param out The stream to write to
+     * @throws IOException Thrown if the stream cannot be written
+     */
+    public void exportAscii(byte delimiter, OutputStream out) throws IOException {
+        for (int i = 0; i < size; i++) {
+            byte[] numeral = ElbonianAscii.elbonianBytes(codes.get(i));
+            out.write(numeral, 0, numeral.length);
+            out.write(delimiter);
+        }
+    }
+
+    /**
+     * Writes the Elbonian form of entries to a buffer as ASCII, with a delimiter after each entry, for as
+     * long as whole entries fit. The position of the buffer is advanced past what was written.
+     *
+     * @param from The index of the first entry to write
+     * @param delimiter The byte to write after each entry, such as a newline
+     * @param dst The buffer to write into
+     * @return The index of the first entry that was not written, which is size() once the column is done
+     * @throws IndexOutOfBoundsException Thrown if from is negative or greater than the size
+     */
+    public int exportAscii(int from, byte delimiter, ByteBuffer dst) {
+        Objects.checkFromToIndex(from, size, size);
+        int index = from;
+        while (index < size) {
+            byte[] numeral = ElbonianAscii.elbonianBytes(codes.get(index));
+            if (dst.remaining() <= numeral.length) {
+                break;
+            }
+            dst.put(numeral).put(delimiter);
+            index++;
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > codes.capacity()) {
+            ShortBuffer grown = allocate(Math.max(capacity, codes.capacity() + (codes.capacity() >> 1) + 1));
+            codes.position(0).limit(size);
+            grown.put(codes).clear();
+            codes = grown;
+        }
+    }
+
+    private ShortBuffer allocate(int capacity) {
+        return direct
+                ? ByteBuffer.allocateDirect(capacity * Short.BYTES).order(ByteOrder.nativeOrder()).asShortBuffer()
+                : ShortBuffer.allocate(capacity);
+    }
+}
@@ -0,0 +1,296 @@
+package converter;
+
+import converter.exceptions.MalformedNumberException;
+import converter.exceptions.ValueOutOfBoundsException;
+
+import java.math.BigInteger;
+
+/**
+ * An opt-in extension of the Elbonian number system to values above 3999. The rest of the package keeps
+ * to the strict domain of 1 to 3999; only the methods of this class accept larger values.
+ *
+ * The notation: a value from 1 to 3999 is written exactly as in the strict system. A larger value is split
+ * into periods of three decimal digits, as when grouping thousands, and the periods are written from the
+ * most significant down, separated by PERIOD_SEPARATOR. Each period (0 to 999) is written with the
+ * hundreds, tens and ones groups of the strict system, so a period of 0 is empty, and M is never used.
+ * For example 4000 is "vV.", 1234567 is "I.CCXXXvV.DLXVII" and 1000000 is "I..". Every value has exactly one
+ * spelling: a separated spelling of a value below 4000, or one whose first period is empty, is rejected.
+ *
+ * Both directions look at each digit or character once, so they run in time linear in the length of the
+ * number. Arabic input is accepted as well, as it is by ElbonianArabicConverter.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianExtended {
+
+    // The character between two periods of an extended numeral
+    public static final char PERIOD_SEPARATOR = '.';
+
+    // The largest value written without periods
+    private static final int STRICT_MAX = ElbonianTable.MAX_VALUE;
+
+    private ElbonianExtended() {
+    }
+
+    /**
+     * Writes a value in extended Elbonian.
+     *
+     * @param value The value, from 1 to Long.MAX_VALUE
+     * @return The extended Elbonian numeral
+     * @throws ValueOutOfBoundsException Thrown if the value is zero or negative
+     */
+    public static String toElbonian(long value) throws ValueOutOfBoundsException {
+        if (value >= 1 && value <= STRICT_MAX) {
+            return ElbonianTable.toElbonian((int) value);
+        }
+        return toElbonian(value, new StringBuilder(64)).toString();
+    }
+
+    /**
+     * Appends a value in extended Elbonian to a builder.
+     *
+     * @param value The value, from 1 to Long.MAX_VALUE
+     * @param dst The builder to append to
+     * @return The builder, for chaining
+     * @throws ValueOutOfBoundsException Thrown if the value is zero or negative
+     */
+    public static StringBuilder toElbonian(long value, StringBuilder dst) throws ValueOutOfBoundsException {
+        if (value < 1) {
+            throw outOfBounds(Long.toString(Long.MAX_VALUE));
+        }
+        if (value <= STRICT_MAX) {
+            return dst.append(ElbonianTable.toElbonian((int) value));
+        }
+        // A long has at most seven periods; collect them least significant first
+        int[] periods = new int[7];
+        int count = 0;
+        for (long rest = value; rest > 0; rest /= 1000) {
+            periods[count++] = (int) (rest % 1000);
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            appendPeriod(periods[i], dst);
+            if (i > 0) {
+                dst.append(PERIOD_SEPARATOR);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes a value of any size in extended Elbonian. The digits are walked once after BigInteger has
+     * produced them in decimal.
+     *
+     * @param value The value, 1 or more
+     * @return The extended Elbonian numeral
+     * @throws ValueOutOfBoundsException Thrown if the value is zero or negative
+     */
+    public static String toElbonian(BigInteger value) throws ValueOutOfBoundsException {
+        if (value.signum() <= 0) {
+            throw belowOne();
+        }
+        if (value.bitLength() < Long.SIZE) {
+            return toElbonian(value.longValue());
+        }
+        String digits = value.toString();
+        StringBuilder dst = new StringBuilder(digits.length() * 4);
+        // The first period holds whatever is left over after splitting the rest into threes
+        int end = digits.length() % 3 == 0 ? 3 : digits.length() % 3;
+        for (int start = 0; start < digits.length(); start = end, end += 3) {
+            int period = 0;
+            for (int i = start; i < end; i++) {
+                period = period * 10 + (digits.charAt(i) - '0');
+            }
+            if (start > 0) {
+                dst.append(PERIOD_SEPARATOR);
+            }
+            appendPeriod(period, dst);
+        }
+        return dst.toString();
+    }
+
+    /**
+     * Reads a number in extended Elbonian or in Arabic, ignoring leading and trailing spaces.
+     *
+     * @param text The number
+     * @return The value
+     * @throws MalformedNumberException Thrown if the text is empty or is not a valid extended Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the value is zero, negative or greater than Long.MAX_VALUE
+     */
+    public static long parseLong(CharSequence text) throws MalformedNumberException, ValueOutOfBoundsException {
+        int from = start(text);
+        int to = end(text, from);
+        if (ElbonianValidator.isArabic(text, from, to)) {
+            return parseArabic(text, from, to);
+        }
+        long value = 0;
+        int periods = 0;
+        int first = 0;
+        int periodStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && text.charAt(i) != PERIOD_SEPARATOR) {
+                continue;
+            }
+            int period = period(text, from, periodStart, i, to);
+            if (periods++ == 0) {
+                first = period;
+            }
+            if (value > (Long.MAX_VALUE - period) / 1000) {
+                throw outOfBounds(Long.toString(Long.MAX_VALUE));
+            }
+            value = value * 1000 + period;
+            periodStart = i + 1;
+        }
+        checkCanonical(first, periods);
+        return value;
+    }
+
+    /**
+     * Reads a number of any size in extended Elbonian or in Arabic, ignoring leading and trailing spaces.
+     *
+     * @param text The number
+     * @return The value
+     * @throws MalformedNumberException Thrown if the text is empty or is not a valid extended Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the value is zero or negative
+     */
+    public static BigInteger parseBigInteger(CharSequence text) throws MalformedNumberException, ValueOutOfBoundsException {
+        int from = start(text);
+        int to = end(text, from);
+        if (ElbonianValidator.isArabic(text, from, to)) {
+            checkArabic(text, from, to);
+            BigInteger value = new BigInteger(text.subSequence(from, to).toString());
+            if (value.signum() <= 0) {
+                throw belowOne();
+            }
+            return value;
+        }
+        // Write the periods out as decimal digits, three to each period but the first, and convert once
+        StringBuilder digits = new StringBuilder(to - from);
+        int periods = 0;
+        int first = 0;
+        int periodStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && text.charAt(i) != PERIOD_SEPARATOR) {
+                continue;
+            }
+            int period = period(text, from, periodStart, i, to);
+            if (periods++ == 0) {
+                first = period;
+                digits.append(period);
+            }
+            else {
+                digits.append((char) ('0' + period / 100))
+                        .append((char) ('0' + period / 10 % 10))
+                        .append((char) ('0' + period % 10));
+            }
+            periodStart = i + 1;
+        }
+        checkCanonical(first, periods);
+        return new BigInteger(digits.toString());
+    }
+
+    // Reads one period of a numeral that spans from to to, checking that the whole numeral is canonical
+    private static int period(CharSequence text, int from, int start, int end, int to) throws MalformedNumberException {
+        boolean separated = start > from || end < to;
+        if (!separated) {
+            // No separator at all: a number of the strict system
+            if (start == end) {
+                throw new MalformedNumberException(ConversionResult.message(ConversionResult.EMPTY));
+            }
+            return strict(text, start, end);
+        }
+        int period = ElbonianTable.lookup(text, start, end);
+        if (period == 0 && start < end || period >= 1000) {
+            // Not a spelling of 1 to 999; let the strict rules say what is wrong with it, if they can
+            int result = ElbonianValidator.validate(text, start, end);
+            throw new MalformedNumberException(ConversionResult.message(ConversionResult.isError(result)
+                    ? ConversionResult.rule(result)
+                    : ConversionResult.ORDERING));
+        }
+        return period;
+    }
+
+    // Rejects a separated spelling whose first period is empty, or of a value the strict system writes itself
+    private static void checkCanonical(int first, int periods) throws MalformedNumberException {
+        if (periods > 1 && (first == 0 || periods == 2 && first * 1000 + 999 <= STRICT_MAX)) {
+            throw new MalformedNumberException(ConversionResult.message(ConversionResult.ORDERING));
+        }
+    }
+
+    // Reads a numeral of the strict system, which ElbonianArabicConverter would accept
+    private static int strict(CharSequence text, int from, int to) throws MalformedNumberException {
+        try {
+            return ElbonianArabicConverter.checkResult(ElbonianValidator.validate(text, from, to));
+        }
+        catch (ValueOutOfBoundsException e) {
+            // Only Arabic numbers can be out of bounds, and those are read elsewhere
+            throw new MalformedNumberException(e.getMessage());
+        }
+    }
+
+    private static long parseArabic(CharSequence text, int from, int to) throws MalformedNumberException, ValueOutOfBoundsException {
+        checkArabic(text, from, to);
+        boolean negative = text.charAt(from) == '-';
+        long value = 0;
+        for (int i = text.charAt(from) == '-' || text.charAt(from) == '+' ? from + 1 : from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                throw outOfBounds(Long.toString(Long.MAX_VALUE));
+            }
+            value = value * 10 + digit;
+        }
+        if (negative || value == 0) {
+            throw outOfBounds(Long.toString(Long.MAX_VALUE));
+        }
+        return value;
+    }
+
+    // Checks that an Arabic number holds nothing but an optional sign and digits
+    private static void checkArabic(CharSequence text, int from, int to) throws MalformedNumberException {
+        int start = text.charAt(from) == '-' || text.charAt(from) == '+' ? from + 1 : from;
+        if (start == to) {
+            throw new MalformedNumberException(ConversionResult.message(ConversionResult.BAD_CHARACTER));
+        }
+        for (int i = start; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new MalformedNumberException(ConversionResult.message(Character.isLetter(c)
+                        ? ConversionResult.MIXED_FORMS
+                        : ConversionResult.BAD_CHARACTER));
+            }
+        }
+    }
+
+    private static void appendPeriod(int period, StringBuilder dst) {
+        dst.append(ElbonianTable.DIGIT_GROUPS[2][period / 100])
+                .append(ElbonianTable.DIGIT_GROUPS[1][period / 10 % 10])
+                .append(ElbonianTable.DIGIT_GROUPS[0][period % 10]);
+    }
+
+    private static int start(CharSequence text) {
+        int from = 0;
+        while (from < text.length() && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int end(CharSequence text, int from) throws MalformedNumberException {
+        int to = text.length();
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            throw new MalformedNumberException(ConversionResult.message(ConversionResult.EMPTY));
+        }
+        return to;
+    }
+
+    private static ValueOutOfBoundsException outOfBounds(String max) {
+        return new ValueOutOfBoundsException("The value given is outside 1 to " + max + ", not writable in extended Elbonian");
+    }
+
+    // Values of any size have no upper bound, so only a value below 1 is out of bounds
+    private static ValueOutOfBoundsException belowOne() {
+        return new ValueOutOfBoundsException("The value given is less than 1, not writable in extended Elbonian");
+    }
+}
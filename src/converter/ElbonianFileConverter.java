@@ -0,0 +1,177 @@
+package converter;
+
+import converter.exceptions.MalformedNumberException;
+import converter.exceptions.ValueOutOfBoundsException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A command line tool that converts a file with one Elbonian or Arabic number per line into the other form.
+ * Lines holding an Arabic number are written in Elbonian and lines holding an Elbonian number are written in
+ * Arabic. The file is streamed through fixed-size direct buffers and each line is validated straight from
+ * the bytes, so memory use does not depend on the size of the file.
+ *
+ * Lines that cannot be converted are written to a separate reject file together with their line number and
+ * the reason, and leave an empty line in the output so every output line matches its input line. Blank
+ * lines are copied as blank lines.
+ *
+ * Usage: java converter.ElbonianFileConverter input output [rejects]
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianFileConverter {
+
+    // The size of each direct buffer used to read and write the files
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // The longest line that is read; longer lines are rejected without being kept in memory
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer rejects = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private final AsciiSequence lineView = new AsciiSequence();
+
+    private FileChannel outChannel;
+    private FileChannel rejectChannel;
+    private long converted;
+    private long rejected;
+
+    /**
+     * Converts the file named by the first argument into the file named by the second argument. Rejected
+     * lines go to the file named by the third argument, or to the output file name followed by ".rejects".
+     *
+     * @param args The input file, the output file and optionally the reject file
+     * @throws IOException Thrown if one of the files cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java converter.ElbonianFileConverter input output [rejects]");
+            System.exit(2);
+        }
+        Path rejectPath = Paths.get(args.length == 3 ? args[2] : args[1] + ".rejects");
+        ElbonianFileConverter converter = new ElbonianFileConverter();
+        converter.convert(Paths.get(args[0]), Paths.get(args[1]), rejectPath);
+        System.err.println("Converted " + converter.converted + " lines, rejected " + converter.rejected);
+    }
+
+    /**
+     * Converts one file. An instance holds its buffers between calls, so it can convert several files in
+     * turn but must not be shared between threads.
+     *
+     * @param input The file to read
+     * @param output The file to write the converted numbers to
+     * @param rejectOutput The file to write rejected lines to
+     * @return The number of lines that were rejected
+     * @throws IOException Thrown if one of the files cannot be read or written
+     */
+    public long convert(Path input, Path output, Path rejectOutput) throws IOException {
+        converted = 0;
+        rejected = 0;
+        try (FileChannel inChannel = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel outFile = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel rejectFile = FileChannel.open(rejectOutput, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            outChannel = outFile;
+            rejectChannel = rejectFile;
+            out.clear();
+            rejects.clear();
+
+            long lineNumber = 1;
+            int length = 0;
+            boolean pending = false;
+            in.clear();
+            while (inChannel.read(in) >= 0) {
+                in.flip();
+                while (in.hasRemaining()) {
+                    byte b = in.get();
+                    if (b == '\n') {
+                        convertLine(lineNumber++, length);
+                        length = 0;
+                        pending = false;
+                    }
+                    else {
+                        // Past the limit only the length is counted, so the line is known to be too long
+                        if (length < MAX_LINE_LENGTH) {
+                            line[length] = b;
+                        }
+                        length++;
+                        pending = true;
+                    }
+                }
+                in.clear();
+            }
+            if (pending) {
+                convertLine(lineNumber, length);
+            }
+            drain(out, outChannel);
+            drain(rejects, rejectChannel);
+        }
+        finally {
+            outChannel = null;
+            rejectChannel = null;
+        }
+        return rejected;
+    }
+
+    private void convertLine(long lineNumber, int length) throws IOException {
+        if (length > MAX_LINE_LENGTH) {
+            reject(lineNumber, MAX_LINE_LENGTH, MalformedNumberException.class.getSimpleName()
+                    + ": Line is longer than " + MAX_LINE_LENGTH + " characters");
+            ensureRoom(out, outChannel, 1);
+            out.put((byte) '\n');
+            return;
+        }
+        // Drop the carriage return of files with Windows line endings
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        ensureRoom(out, outChannel, ElbonianArabicConverter.MAX_ELBONIAN_LENGTH + 1);
+        int result = ElbonianValidator.validate(lineView.wrap(line, 0, length), 0, length);
+        if (!ConversionResult.isError(result)) {
+            out.put(ElbonianValidator.isArabic(lineView, 0, length)
+                    ? ElbonianAscii.elbonianBytes(result)
+                    : ElbonianAscii.arabicBytes(result));
+            converted++;
+        }
+        else if (ConversionResult.rule(result) != ConversionResult.EMPTY) {
+            int rule = ConversionResult.rule(result);
+            String exception = rule == ConversionResult.OUT_OF_BOUNDS
+                    ? ValueOutOfBoundsException.class.getSimpleName()
+                    : MalformedNumberException.class.getSimpleName();
+            reject(lineNumber, length, exception + ": " + ConversionResult.message(rule)
+                    + " (column " + (ConversionResult.position(result) + 1) + ")");
+        }
+        out.put((byte) '\n');
+    }
+
+    private void reject(long lineNumber, int length, String reason) throws IOException {
+        byte[] prefix = (lineNumber + "\t").getBytes(StandardCharsets.US_ASCII);
+        byte[] suffix = ("\t" + reason + "\n").getBytes(StandardCharsets.US_ASCII);
+        ensureRoom(rejects, rejectChannel, prefix.length + length + suffix.length);
+        rejects.put(prefix).put(line, 0, length).put(suffix);
+        rejected++;
+    }
+
+    private static void ensureRoom(ByteBuffer buffer, FileChannel channel, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            drain(buffer, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
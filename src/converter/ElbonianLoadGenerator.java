@@ -0,0 +1,256 @@
+package converter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A load generator for ElbonianServer. It opens a number of connections, each on its own thread, and keeps
+ * sending batches of random Elbonian and Arabic numbers for a fixed time. Each connection keeps a fixed
+ * number of requests in flight (the pipeline depth) and times every request from when it is sent to when
+ * its response has been read. At the end it reports throughput and the median and 99th percentile latency.
+ *
+ * Usage: java converter.ElbonianLoadGenerator [host] [port] [connections] [batch size] [depth] [seconds]
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianLoadGenerator {
+
+    // The number of different request lines each connection cycles through
+    private static final int REQUEST_VARIETY = 64;
+
+    private final String host;
+    private final int port;
+    private final int batchSize;
+    private final int depth;
+    private final long durationNanos;
+
+    /**
+     * Creates a load generator. Nothing is sent until run is called.
+     *
+     * @param host The host the server runs on
+     * @param port The port the server listens on
+     * @param batchSize The number of values in each request
+     * @param depth The number of requests each connection keeps in flight
+     * @param seconds How long to send requests for
+     */
+    public ElbonianLoadGenerator(String host, int port, int batchSize, int depth, int seconds) {
+        this.host = host;
+        this.port = port;
+        this.batchSize = batchSize;
+        this.depth = depth;
+        this.durationNanos = seconds * 1_000_000_000L;
+    }
+
+    /**
+     * Runs a load test against a local server and prints the results.
+     *
+     * @param args Optionally the host, port, connections, batch size, pipeline depth and duration in seconds
+     * @throws Exception Thrown if a connection fails
+     */
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : ElbonianServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int depth = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        int seconds = args.length > 5 ? Integer.parseInt(args[5]) : 10;
+        ElbonianLoadGenerator generator = new ElbonianLoadGenerator(host, port, batchSize, depth, seconds);
+        System.out.println(generator.run(connections));
+    }
+
+    /**
+     * Sends load over several connections at once and waits for all of them to finish.
+     *
+     * @param connections The number of connections to open
+     * @return A summary of throughput and latency
+     * @throws Exception Thrown if a connection fails
+     */
+    public Report run(int connections) throws Exception {
+        Connection[] workers = new Connection[connections];
+        Thread[] threads = new Thread[connections];
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            workers[i] = new Connection(i);
+            threads[i] = new Thread(workers[i], "elbonian-load-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int requests = 0;
+        for (Connection worker : workers) {
+            if (worker.failure != null) {
+                throw worker.failure;
+            }
+            requests += worker.completed;
+        }
+        long[] latencies = new long[requests];
+        int filled = 0;
+        for (Connection worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, filled, worker.completed);
+            filled += worker.completed;
+        }
+        Arrays.sort(latencies);
+        return new Report(requests, (long) requests * batchSize, elapsed,
+                percentile(latencies, 50), percentile(latencies, 99));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(sorted.length * percentile / 100.0);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    // Builds request lines of random numbers, half of them Elbonian and half Arabic
+    private byte[][] requestLines(long seed) {
+        Random random = new Random(seed);
+        byte[][] lines = new byte[REQUEST_VARIETY][];
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            line.setLength(0);
+            for (int j = 0; j < batchSize; j++) {
+                if (j > 0) {
+                    line.append(',');
+                }
+                int value = ElbonianTable.MIN_VALUE + random.nextInt(ElbonianTable.MAX_VALUE);
+                line.append(random.nextBoolean() ? ElbonianTable.toElbonian(value) : Integer.toString(value));
+            }
+            lines[i] = line.append('\n').toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        return lines;
+    }
+
+    /**
+     * The outcome of a load test.
+     */
+    public static final class Report {
+        private final long requests;
+        private final long values;
+        private final long elapsedNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+
+        Report(long requests, long values, long elapsedNanos, long p50Nanos, long p99Nanos) {
+            this.requests = requests;
+            this.values = values;
+            this.elapsedNanos = elapsedNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+        }
+
+        /**
+         * Returns how many requests completed.
+         *
+         * @return The number of requests
+         */
+        public long requests() {
+            return requests;
+        }
+
+        /**
+         * Returns how many values were converted per second.
+         *
+         * @return The throughput in values per second
+         */
+        public double valuesPerSecond() {
+            return values * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns the median request latency.
+         *
+         * @return The latency in nanoseconds
+         */
+        public long p50Nanos() {
+            return p50Nanos;
+        }
+
+        /**
+         * Returns the 99th percentile request latency.
+         *
+         * @return The latency in nanoseconds
+         */
+        public long p99Nanos() {
+            return p99Nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %.0f requests/s, %.0f values/s, p50 %.1f us, p99 %.1f us",
+                    requests, requests * 1e9 / elapsedNanos, valuesPerSecond(), p50Nanos / 1e3, p99Nanos / 1e3);
+        }
+    }
+
+    // Drives one connection, recording the latency of every request it completes
+    private final class Connection implements Runnable {
+        private final byte[][] lines;
+        private long[] latencies = new long[1 << 12];
+        private int completed;
+        private Exception failure;
+
+        Connection(int id) {
+            this.lines = requestLines(id);
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket(host, port)) {
+                socket.setTcpNoDelay(true);
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 1 << 16);
+                InputStream in = new BufferedInputStream(socket.getInputStream(), 1 << 16);
+                // The send times of the requests in flight, indexed by request number modulo the depth
+                long[] sent = new long[depth];
+                long end = System.nanoTime() + durationNanos;
+                int next = 0;
+                int received = 0;
+                while (next < depth) {
+                    sent[next % depth] = System.nanoTime();
+                    out.write(lines[next++ % lines.length]);
+                }
+                // Replace each response with a new request, until the time is up and the last ones are in
+                while (received < next) {
+                    // Send what was written only when about to wait, so replies already buffered are answered together
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                    skipLine(in);
+                    record(System.nanoTime() - sent[received++ % depth]);
+                    if (System.nanoTime() < end) {
+                        sent[next % depth] = System.nanoTime();
+                        out.write(lines[next++ % lines.length]);
+                    }
+                }
+            }
+            catch (Exception e) {
+                failure = e;
+            }
+        }
+
+        private void skipLine(InputStream in) throws IOException {
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new IOException("The server closed the connection");
+                }
+            }
+        }
+
+        private void record(long nanos) {
+            if (completed == latencies.length) {
+                latencies = Arrays.copyOf(latencies, completed * 2);
+            }
+            latencies[completed++] = nanos;
+        }
+    }
+}
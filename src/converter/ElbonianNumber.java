@@ -0,0 +1,125 @@
+package converter;
+
+import converter.exceptions.MalformedNumberException;
+import converter.exceptions.ValueOutOfBoundsException;
+
+/**
+ * An immutable number of the Elbonian domain (1 to 3999) that keeps its value as a primitive. Numbers can
+ * be compared, added and subtracted without going through their text, and the Elbonian text is only looked
+ * up when it is asked for. There is one shared instance per value, so arithmetic does not allocate.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianNumber implements Comparable<ElbonianNumber> {
+
+    // The shared instance of each value, filled in on first use
+    private static final ElbonianNumber[] NUMBERS = new ElbonianNumber[ElbonianTable.MAX_VALUE + 1];
+
+    // The value of the number, from 1 to 3999
+    private final int value;
+
+    private ElbonianNumber(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the number with a value.
+     *
+     * @param value The value, from 1 to 3999
+     * @return The shared instance for the value
+     * @throws ValueOutOfBoundsException Thrown if the value cannot be represented in the Elbonian number system
+     */
+    public static ElbonianNumber valueOf(int value) throws ValueOutOfBoundsException {
+        ElbonianNumber number = NUMBERS[ElbonianArabicConverter.checkBounds(value)];
+        if (number == null) {
+            // Racing threads may each create an instance; they are equal, and the final field makes either safe
+            number = new ElbonianNumber(value);
+            NUMBERS[value] = number;
+        }
+        return number;
+    }
+
+    /**
+     * Parses a number in Elbonian or Arabic form, ignoring leading and trailing spaces.
+     *
+     * @param text The text of the number
+     * @return The shared instance for the value of the number
+     * @throws MalformedNumberException Thrown if the text is empty or is not a valid Elbonian or Arabic number
+     * @throws ValueOutOfBoundsException Thrown if the text is an Arabic number that cannot be represented
+     * in the Elbonian number system.
+     */
+    public static ElbonianNumber parse(CharSequence text) throws MalformedNumberException, ValueOutOfBoundsException {
+        return valueOf(ElbonianArabicConverter.parseElbonian(text, 0, text.length()));
+    }
+
+    /**
+     * Returns the value of the number.
+     *
+     * @return The value, from 1 to 3999
+     */
+    public int intValue() {
+        return value;
+    }
+
+    /**
+     * Adds another number to this one.
+     *
+     * @param other The number to add
+     * @return The sum
+     * @throws ValueOutOfBoundsException Thrown if the sum is greater than 3999
+     */
+    public ElbonianNumber plus(ElbonianNumber other) throws ValueOutOfBoundsException {
+        return valueOf(value + other.value);
+    }
+
+    /**
+     * Subtracts another number from this one.
+     *
+     * @param other The number to subtract
+     * @return The difference
+     * @throws ValueOutOfBoundsException Thrown if the difference is less than 1
+     */
+    public ElbonianNumber minus(ElbonianNumber other) throws ValueOutOfBoundsException {
+        return valueOf(value - other.value);
+    }
+
+    /**
+     * Returns the Elbonian form of the number, looked up from the shared table.
+     *
+     * @return The Elbonian numeral
+     */
+    public String toElbonian() {
+        return ElbonianTable.toElbonian(value);
+    }
+
+    /**
+     * Compares two numbers by value.
+     *
+     * @param other The number to compare to
+     * @return A negative number, zero or a positive number as this number is less than, equal to or greater than other
+     */
+    @Override
+    public int compareTo(ElbonianNumber other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ElbonianNumber && ((ElbonianNumber) other).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    /**
+     * Returns the Elbonian form of the number.
+     *
+     * @return The Elbonian numeral
+     */
+    @Override
+    public String toString() {
+        return toElbonian();
+    }
+}
@@ -0,0 +1,302 @@
+package converter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reactive processor that converts a stream of Elbonian or Arabic numbers. Every input token becomes one
+ * Item holding its value and its other form, in input order. A token that cannot be converted becomes an
+ * Item that carries the rule it broke, so one bad token never ends the stream; only a failure of the
+ * upstream publisher is passed on as onError.
+ *
+ * The processor never requests more from upstream than downstream has asked for, and it requests and
+ * converts in micro-batches of a configurable size so that neither side is signalled once per token.
+ * Conversion is cheap and does not block, so it runs on whichever thread delivers a token or a request.
+ * A processor serves a single subscriber.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianProcessor implements Flow.Processor<CharSequence, ElbonianProcessor.Item> {
+
+    // The micro-batch size used by the no-argument constructor
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final int batchSize;
+
+    // Tokens received from upstream and not yet converted
+    private final Queue<CharSequence> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    // Tokens requested from upstream that have not arrived yet
+    private final AtomicLong inFlight = new AtomicLong();
+
+    // Items downstream has requested and not yet received
+    private final AtomicLong requested = new AtomicLong();
+
+    // Makes sure only one thread runs the drain loop at a time; counts the signals it still has to look at
+    private final AtomicInteger work = new AtomicInteger();
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super Item> downstream;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+
+    // The failure of the upstream publisher, passed on once the tokens received before it are emitted
+    private volatile Throwable failure;
+
+    // A broken rule of the Flow protocol by the subscriber, passed on right away
+    private volatile Throwable protocolError;
+
+    // Set once downstream has received onComplete or onError; only touched by the drain loop
+    private boolean terminated;
+
+    /**
+     * Creates a processor that converts in micro-batches of DEFAULT_BATCH_SIZE tokens.
+     */
+    public ElbonianProcessor() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a processor.
+     *
+     * @param batchSize The most tokens requested from upstream, and converted, in one go
+     */
+    public ElbonianProcessor(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive, not " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Item> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("An ElbonianProcessor serves a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    protocolError = new IllegalArgumentException("Request for " + n + " items; it must be positive");
+                    cancelUpstream();
+                }
+                else {
+                    requested.accumulateAndGet(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                drain();
+            }
+        });
+        // Only publish the subscriber once onSubscribe has returned, so no other signal can overtake it
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(CharSequence token) {
+        // Count the token as buffered before it can be polled, and only then as arrived, so a drain on another
+        // thread always sees it in one of the two counts and never requests more from upstream too early
+        buffered.incrementAndGet();
+        inbox.offer(token);
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failure = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void drain() {
+        if (work.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            Flow.Subscriber<? super Item> subscriber = downstream;
+            if (subscriber != null && !terminated) {
+                if (cancelled) {
+                    inbox.clear();
+                }
+                else if (protocolError != null) {
+                    terminated = true;
+                    inbox.clear();
+                    subscriber.onError(protocolError);
+                }
+                else {
+                    emit(subscriber);
+                    if (done && buffered.get() == 0) {
+                        terminated = true;
+                        if (failure != null) {
+                            subscriber.onError(failure);
+                        }
+                        else {
+                            subscriber.onComplete();
+                        }
+                    }
+                    else {
+                        replenish();
+                    }
+                }
+            }
+            missed = work.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    // Converts and emits tokens in micro-batches while downstream has demand
+    private void emit(Flow.Subscriber<? super Item> subscriber) {
+        long demand = requested.get();
+        long emitted = 0;
+        while (emitted < demand && !cancelled) {
+            int batch = (int) Math.min(batchSize, demand - emitted);
+            int converted = 0;
+            CharSequence token;
+            while (converted < batch && (token = inbox.poll()) != null) {
+                buffered.decrementAndGet();
+                subscriber.onNext(new Item(token, ElbonianValidator.validate(token, 0, token.length())));
+                converted++;
+            }
+            if (converted == 0) {
+                break;
+            }
+            emitted += converted;
+        }
+        if (emitted > 0 && demand != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+        }
+    }
+
+    // Asks upstream for the next micro-batch once everything requested so far has been used up
+    private void replenish() {
+        Flow.Subscription subscription = upstream;
+        if (subscription == null || done || cancelled || protocolError != null) {
+            return;
+        }
+        long wanted = Math.min(requested.get(), batchSize);
+        if (wanted > 0 && inFlight.get() == 0 && buffered.get() == 0) {
+            inFlight.addAndGet(wanted);
+            subscription.request(wanted);
+        }
+    }
+
+    /**
+     * The outcome of converting one token.
+     */
+    public static final class Item {
+        private final CharSequence input;
+        private final int result;
+
+        Item(CharSequence input, int result) {
+            this.input = input;
+            this.result = result;
+        }
+
+        /**
+         * Returns the token that was converted.
+         *
+         * @return The input token, as it was received
+         */
+        public CharSequence input() {
+            return input;
+        }
+
+        /**
+         * Checks whether the token could not be converted.
+         *
+         * @return True if the token broke a rule
+         */
+        public boolean isError() {
+            return ConversionResult.isError(result);
+        }
+
+        /**
+         * Returns the value of the token.
+         *
+         * @return The value, or 0 if the token could not be converted
+         */
+        public int value() {
+            return isError() ? 0 : result;
+        }
+
+        /**
+         * Returns the other form of the token: Elbonian for an Arabic token and Arabic for an Elbonian one.
+         *
+         * @return The converted number, or null if the token could not be converted
+         */
+        public String converted() {
+            if (isError()) {
+                return null;
+            }
+            return ElbonianValidator.isArabic(input, 0, input.length())
+                    ? ElbonianTable.toElbonian(result)
+                    : Integer.toString(result);
+        }
+
+        /**
+         * Returns the result of the conversion, which can be decoded with ConversionResult.
+         *
+         * @return The value, or a negative error holding the rule that was broken and its position
+         */
+        public int result() {
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return isError()
+                    ? input + " -> " + ConversionResult.message(ConversionResult.rule(result))
+                    : input + " -> " + converted();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package converter;
+
+import converter.exceptions.ValueOutOfBoundsException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An ascending range of Elbonian numerals, such as every numeral from I to MMMDdDLlLVvV. The range can be
+ * walked with an iterator, or as a stream that splits evenly for parallel use; both hand out the shared
+ * numerals of the package table, so walking the whole domain allocates nothing per numeral. A cursor walks
+ * the range as a single reused character sequence instead, moving to the next numeral by rewriting only the
+ * digit groups that changed, which suits writing long ranges straight into a builder or a stream.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianRange implements Iterable<String> {
+
+    // The first value of the range
+    private final int from;
+
+    // The last value of the range
+    private final int to;
+
+    private ElbonianRange(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns the range of numerals between two values, including both.
+     *
+     * @param from The first value, from 1 to 3999
+     * @param to The last value, from from to 3999
+     * @return The range
+     * @throws ValueOutOfBoundsException Thrown if either value cannot be represented in the Elbonian number system
+     */
+    public static ElbonianRange of(int from, int to) throws ValueOutOfBoundsException {
+        ElbonianArabicConverter.checkBounds(from);
+        ElbonianArabicConverter.checkBounds(to);
+        if (from > to) {
+            throw new IllegalArgumentException("The range " + from + " to " + to + " is backwards");
+        }
+        return new ElbonianRange(from, to);
+    }
+
+    /**
+     * Returns the range of the numerals that follow a value.
+     *
+     * @param start The value to start after, from 0 (to start at I) to 3998
+     * @param count The number of numerals in the range
+     * @return The range from start + 1 to start + count
+     * @throws ValueOutOfBoundsException Thrown if the range would go past 3999
+     */
+    public static ElbonianRange following(int start, int count) throws ValueOutOfBoundsException {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The count must be positive, not " + count);
+        }
+        return of(start + 1, start + count);
+    }
+
+    /**
+     * Returns the first value of the range.
+     *
+     * @return The first value
+     */
+    public int from() {
+        return from;
+    }
+
+    /**
+     * Returns the last value of the range.
+     *
+     * @return The last value
+     */
+    public int to() {
+        return to;
+    }
+
+    /**
+     * Returns the number of numerals in the range.
+     *
+     * @return The size of the range
+     */
+    public int size() {
+        return to - from + 1;
+    }
+
+    /**
+     * Returns an iterator over the numerals of the range, in increasing order.
+     *
+     * @return The iterator
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next <= to;
+            }
+
+            @Override
+            public String next() {
+                if (next > to) {
+                    throw new NoSuchElementException();
+                }
+                return ElbonianTable.toElbonian(next++);
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator over the numerals of the range. It knows its exact size, and each split hands
+     * off the lower half of what remains.
+     *
+     * @return The spliterator
+     */
+    @Override
+    public Spliterator<String> spliterator() {
+        return new Numerals(from, to + 1);
+    }
+
+    /**
+     * Returns a stream of the numerals of the range.
+     *
+     * @param parallel True for a parallel stream
+     * @return The stream
+     */
+    public Stream<String> stream(boolean parallel) {
+        return StreamSupport.stream(spliterator(), parallel);
+    }
+
+    /**
+     * Returns a cursor placed before the first numeral of the range.
+     *
+     * @return The cursor
+     */
+    public Cursor cursor() {
+        return new Cursor(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return ElbonianTable.toElbonian(from) + ".." + ElbonianTable.toElbonian(to);
+    }
+
+    // Splits a range of values, [next, end), into halves
+    private static final class Numerals implements Spliterator<String> {
+        private int next;
+        private final int end;
+
+        Numerals(int next, int end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (next >= end) {
+                return false;
+            }
+            action.accept(ElbonianTable.toElbonian(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super String> action) {
+            int value = next;
+            next = end;
+            for (; value < end; value++) {
+                action.accept(ElbonianTable.toElbonian(value));
+            }
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            int middle = (next + end) >>> 1;
+            if (middle <= next) {
+                return null;
+            }
+            Spliterator<String> lower = new Numerals(next, middle);
+            next = middle;
+            return lower;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Walks a range as one reused sequence of characters. Each call to advance rewrites the sequence in place
+     * to the next numeral, touching only the digit groups that changed: most steps only rewrite the ones
+     * group. The sequence must be copied, for example with toString, to keep a numeral after the next step.
+     */
+    public static final class Cursor implements CharSequence {
+        private final int to;
+        private final char[] chars = new char[ElbonianArabicConverter.MAX_ELBONIAN_LENGTH];
+
+        // The digit of each place (0 is the ones place) of the current value
+        private final int[] digits = new int[ElbonianTable.DIGIT_GROUPS.length];
+
+        // The index in chars where the group of each place starts; the thousands group always starts at 0
+        private final int[] starts = new int[ElbonianTable.DIGIT_GROUPS.length];
+
+        private int value;
+        private int length;
+
+        Cursor(int from, int to) {
+            this.to = to;
+            // Start one before the range, so the first advance lands on from
+            this.value = from - 1;
+            for (int place = 0, rest = value; place < digits.length; place++, rest /= 10) {
+                digits[place] = rest % 10;
+            }
+            write(digits.length - 1);
+        }
+
+        /**
+         * Moves to the next numeral of the range.
+         *
+         * @return True if the cursor moved, false if it was already on the last numeral
+         */
+        public boolean advance() {
+            if (value >= to) {
+                return false;
+            }
+            value++;
+            int place = 0;
+            while (digits[place] == 9) {
+                digits[place++] = 0;
+            }
+            digits[place]++;
+            write(place);
+            return true;
+        }
+
+        /**
+         * Returns the value of the current numeral.
+         *
+         * @return The value, or one less than the first value of the range before the first advance
+         */
+        public int value() {
+            return value;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " is outside 0 to " + length);
+            }
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+
+        // Rewrites the groups of the given place and every lower place
+        private void write(int highest) {
+            int position = starts[highest];
+            for (int place = highest; place >= 0; place--) {
+                starts[place] = position;
+                String group = ElbonianTable.DIGIT_GROUPS[place][digits[place]];
+                group.getChars(0, group.length(), chars, position);
+                position += group.length();
+            }
+            length = position;
+        }
+    }
+}
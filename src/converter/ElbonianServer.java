@@ -0,0 +1,282 @@
+package converter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A small line protocol server that converts batches of numbers. Each request is one line of numbers
+ * separated by commas, in Elbonian or Arabic form (they may be mixed, and spaces around a number are
+ * ignored). The response is one line holding the other form of each number, in the same order and also
+ * separated by commas. A number that cannot be converted is answered with an exclamation mark followed by
+ * the ConversionResult rule it broke, such as "!4" for a repeated numeral. Clients may pipeline: they can
+ * send many requests before reading the responses, which come back in request order.
+ *
+ * Every connection is served by its own thread. On a JVM with virtual threads (Java 21 or later) these are
+ * virtual threads; on older JVMs a cached pool of platform threads is used instead. Numbers are validated
+ * in place in the request bytes and encoded with the byte tables of ElbonianAscii, so no String is created
+ * per number.
+ *
+ * Usage: java converter.ElbonianServer [port]
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianServer implements Closeable {
+
+    // The port used when none is given on the command line
+    public static final int DEFAULT_PORT = 3999;
+
+    // The longest request line accepted; a client that sends a longer line is disconnected
+    public static final int MAX_REQUEST_LENGTH = 1 << 20;
+
+    // How long the acceptor waits after a failed accept, at first and at most, so that a persistent failure
+    // such as running out of file descriptors does not keep a core busy
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final boolean virtual;
+
+    // The sockets of the connections being served, so that close can close them; interrupting the threads
+    // that serve them is not enough, as a platform thread blocked in a socket read ignores interrupts
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Starts a server on a port of the loopback address.
+     *
+     * @param port The port to listen on, or 0 to pick a free one
+     * @throws IOException Thrown if the port cannot be opened
+     */
+    public ElbonianServer(int port) throws IOException {
+        this(new ServerSocket(port, 128, InetAddress.getLoopbackAddress()));
+    }
+
+    /**
+     * Starts a server on a socket that is already bound.
+     *
+     * @param serverSocket The socket to accept connections on
+     */
+    public ElbonianServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        this.virtual = virtualThreads != null;
+        this.connections = virtual ? virtualThreads : Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "elbonian-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        new Thread(this::acceptConnections, "elbonian-server-acceptor").start();
+    }
+
+    /**
+     * Starts a server and keeps it running until the process is stopped.
+     *
+     * @param args Optionally the port to listen on
+     * @throws IOException Thrown if the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ElbonianServer server = new ElbonianServer(port);
+        System.err.println("Converting on port " + server.port() + " with "
+                + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads");
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The local port
+     */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes the ones that are open.
+     *
+     * @throws IOException Thrown if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+        connections.shutdownNow();
+    }
+
+    /**
+     * Checks whether connections are served on virtual threads.
+     *
+     * @return True if this JVM supports virtual threads, false if platform threads are used
+     */
+    public boolean usesVirtualThreads() {
+        return virtual;
+    }
+
+    private void acceptConnections() {
+        long backoff = MIN_ACCEPT_BACKOFF_MILLIS;
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            }
+            catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                System.err.println("Accept failed, retrying in " + backoff + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                }
+                catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_ACCEPT_BACKOFF_MILLIS);
+                continue;
+            }
+            backoff = MIN_ACCEPT_BACKOFF_MILLIS;
+            open.add(socket);
+            // close may have run between the accept and the add, and then it did not see this socket
+            if (serverSocket.isClosed()) {
+                closeQuietly(socket);
+                return;
+            }
+            try {
+                connections.execute(() -> serve(socket));
+            }
+            catch (RejectedExecutionException e) {
+                // close shut the executor down after the check above
+                open.remove(socket);
+                closeQuietly(socket);
+                return;
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        }
+        catch (IOException e) {
+            // Closing only to stop the connection; there is nothing left to clean up
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            InputStream in = connection.getInputStream();
+            OutputStream out = new BufferedOutputStream(connection.getOutputStream(), 1 << 16);
+            // The bytes read and not yet answered are buffer[start, end); those before scanned hold no newline
+            byte[] buffer = new byte[1 << 16];
+            int start = 0;
+            int end = 0;
+            int scanned = 0;
+            while (true) {
+                int newline = scanned;
+                while (newline < end && buffer[newline] != '\n') {
+                    newline++;
+                }
+                if (newline < end) {
+                    respond(buffer, start, newline - start, out);
+                    start = newline + 1;
+                    scanned = start;
+                    continue;
+                }
+                scanned = end;
+                if (end - start > MAX_REQUEST_LENGTH) {
+                    return;
+                }
+                if (end == buffer.length) {
+                    if (start > 0) {
+                        // Carry the partial line over to the front of the buffer
+                        System.arraycopy(buffer, start, buffer, 0, end - start);
+                        end -= start;
+                        scanned = end;
+                        start = 0;
+                    }
+                    else {
+                        // Room for the longest request and its newline is as far as the buffer grows
+                        buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, MAX_REQUEST_LENGTH + 1));
+                    }
+                }
+                // Only flush once the client has no more pipelined requests waiting, just before blocking
+                if (in.available() == 0) {
+                    out.flush();
+                }
+                int read = in.read(buffer, end, buffer.length - end);
+                if (read < 0) {
+                    if (end > start) {
+                        respond(buffer, start, end - start, out);
+                    }
+                    break;
+                }
+                end += read;
+            }
+            out.flush();
+        }
+        catch (SocketException e) {
+            // The client went away or the server is closing
+        }
+        catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+        finally {
+            open.remove(socket);
+        }
+    }
+
+    // Answers the request line of length bytes at offset of bytes, not counting its newline
+    private static void respond(byte[] bytes, int offset, int length, OutputStream out) throws IOException {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && bytes[offset + i] != ',') {
+                continue;
+            }
+            if (start > 0) {
+                out.write(',');
+            }
+            int result = ElbonianValidator.validate(bytes, offset + start, offset + i);
+            if (ConversionResult.isError(result)) {
+                out.write('!');
+                out.write('0' + ConversionResult.rule(result));
+            }
+            else {
+                byte[] converted = ElbonianValidator.isArabic(bytes, offset + start, offset + i)
+                        ? ElbonianAscii.elbonianBytes(result)
+                        : ElbonianAscii.arabicBytes(result);
+                out.write(converted, 0, converted.length);
+            }
+            start = i + 1;
+        }
+        out.write('\n');
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor only exists from Java 21, so it is looked up reflectively
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Sorts, deduplicates and counts large collections of Elbonian or Arabic numbers by value. Every element
+ * is parsed exactly once, and because the Elbonian domain only holds 3999 values the elements are then
+ * placed with a counting sort, which takes linear time instead of the n log n comparisons (each parsing
+ * two numbers) of a comparator based sort.
+ *
+ * Elements that are not valid numbers (including null) are kept, in their original order, after all the
+ * valid ones.
+ *
+ * @version 3/18/17
+ */
+public final class ElbonianSort {
+
+    // The bucket that holds the elements that are not valid numbers, after every value bucket
+    private static final int INVALID = ElbonianTable.MAX_VALUE + 1;
+
+    private ElbonianSort() {
+    }
+
+    /**
+     * Sorts an array of Elbonian or Arabic numbers by value. The sort is stable: elements with the same
+     * value, such as "XII" and "12", keep their relative order.
+     *
+     * @param numbers The numbers to sort in place
+     * @param <T> The type of the elements
+     * @return The number of valid elements, which are at the start of the array; the rest are invalid
+     */
+    public static <T extends CharSequence> int sort(T[] numbers) {
+        int[] keys = keys(numbers);
+        int[] starts = new int[INVALID + 1];
+        for (int key : keys) {
+            starts[key]++;
+        }
+        int valid = numbers.length - starts[INVALID];
+        int position = 0;
+        for (int key = 0; key <= INVALID; key++) {
+            int count = starts[key];
+            starts[key] = position;
+            position += count;
+        }
+        T[] original = numbers.clone();
+        for (int i = 0; i < original.length; i++) {
+            numbers[starts[keys[i]]++] = original[i];
+        }
+        return valid;
+    }
+
+    /**
+     * Sorts a list of Elbonian or Arabic numbers by value. The sort is stable, and the invalid elements end
+     * up after the valid ones.
+     *
+     * @param numbers The numbers to sort in place; the list must support set
+     * @param <T> The type of the elements
+     * @return The number of valid elements, which are at the start of the list
+     */
+    public static <T extends CharSequence> int sort(List<T> numbers) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) numbers.toArray(new CharSequence[0]);
+        int valid = sort(array);
+        ListIterator<T> iterator = numbers.listIterator();
+        for (T number : array) {
+            iterator.next();
+            iterator.set(number);
+        }
+        return valid;
+    }
+
+    /**
+     * Keeps one element per distinct value, ordered by value. Of the elements that share a value, the
+     * first one in the array is kept. Invalid elements are left out.
+     *
+     * @param numbers The numbers to deduplicate
+     * @param <T> The type of the elements
+     * @return A new array holding the first element of each distinct value, in increasing order of value
+     */
+    public static <T extends CharSequence> T[] distinct(T[] numbers) {
+        int[] keys = keys(numbers);
+        int[] first = new int[INVALID];
+        Arrays.fill(first, -1);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int key = keys[i];
+            if (key != INVALID && first[key] < 0) {
+                first[key] = i;
+                distinct++;
+            }
+        }
+        T[] result = Arrays.copyOf(numbers, distinct);
+        int position = 0;
+        for (int key = ElbonianTable.MIN_VALUE; key < INVALID; key++) {
+            if (first[key] >= 0) {
+                result[position++] = numbers[first[key]];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Keeps one element per distinct value of a list, ordered by value. Of the elements that share a value,
+     * the first one in the list is kept. Invalid elements are left out.
+     *
+     * @param numbers The numbers to deduplicate
+     * @param <T> The type of the elements
+     * @return A new list holding the first element of each distinct value, in increasing order of value
+     */
+    public static <T extends CharSequence> List<T> distinct(List<T> numbers) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) numbers.toArray(new CharSequence[0]);
+        return new ArrayList<>(Arrays.asList(distinct(array)));
+    }
+
+    /**
+     * Counts how many times each value occurs.
+     *
+     * @param numbers The numbers to count
+     * @return An array of 4000 counts indexed by value; index 0 holds the number of invalid elements
+     */
+    public static int[] histogram(CharSequence[] numbers) {
+        int[] histogram = new int[ElbonianTable.MAX_VALUE + 1];
+        for (int key : keys(numbers)) {
+            histogram[key == INVALID ? 0 : key]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * Counts how many times each value occurs in a list.
+     *
+     * @param numbers The numbers to count
+     * @return An array of 4000 counts indexed by value; index 0 holds the number of invalid elements
+     */
+    public static int[] histogram(List<? extends CharSequence> numbers) {
+        return histogram(numbers.toArray(new CharSequence[0]));
+    }
+
+    // Parses every element once, mapping the invalid ones to the INVALID bucket
+    private static int[] keys(CharSequence[] numbers) {
+        int[] keys = new int[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            CharSequence number = numbers[i];
+            int result = number == null ? -1 : ElbonianValidator.validate(number, 0, number.length());
+            keys[i] = ConversionResult.isError(result) ? INVALID : result;
+        }
+        return keys;
+    }
+}
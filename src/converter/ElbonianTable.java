@@ -0,0 +1,173 @@
+package converter;
+
+import java.util.Arrays;
+
+/**
+ * Lookup tables covering the whole Elbonian domain (1 to 3999): an array that maps each value to its
+ * Elbonian spelling, and a trie that maps the canonical Elbonian spelling back to its value. Both directions
+ * run in time bounded by the length of the longest numeral and do not allocate once warm. Nothing is built
+ * up front, so a short-lived process that converts a few values pays only for those: each spelling is
+ * filled in the first time it is asked for, and the trie is built the first time a numeral is parsed.
+ *
+ * @version 3/18/17
+ */
+final class ElbonianTable {
+
+    // The smallest value that can be written in Elbonian
+    static final int MIN_VALUE = 1;
+
+    // The largest value that can be written in Elbonian
+    static final int MAX_VALUE = 3999;
+
+    // Elbonian spelling of each digit, indexed by place (0 is the ones place) and then by digit
+    static final String[][] DIGIT_GROUPS = {
+            {"", "I", "II", "III", "vV", "V", "VI", "VII", "VIII", "VvV"},
+            {"", "X", "XX", "XXX", "lL", "L", "LX", "LXX", "LXXX", "LlL"},
+            {"", "C", "CC", "CCC", "dD", "D", "DC", "DCC", "DCCC", "DdD"},
+            {"", "M", "MM", "MMM"}
+    };
+
+    // Every character that may appear in an Elbonian numeral
+    static final String SYMBOLS = "MDdCLlXVvI";
+
+    // The trie state for the empty prefix
+    static final int ROOT = 0;
+
+    // Marks a missing transition in the trie
+    static final int NO_STATE = -1;
+
+    // Maps a character to its position in SYMBOLS, or -1 if it is not an Elbonian symbol
+    private static final byte[] SYMBOL_INDEX = new byte[128];
+
+    // The Elbonian spelling of every value, indexed by value (index 0 holds the empty string), filled in on first use
+    private static final String[] ELBONIAN = new String[MAX_VALUE + 1];
+
+    static {
+        Arrays.fill(SYMBOL_INDEX, (byte) -1);
+        for (int i = 0; i < SYMBOLS.length(); i++) {
+            SYMBOL_INDEX[SYMBOLS.charAt(i)] = (byte) i;
+        }
+        ELBONIAN[0] = "";
+    }
+
+    private ElbonianTable() {
+    }
+
+    /**
+     * Returns the Elbonian spelling of a value. The value must already be within the Elbonian bounds.
+     *
+     * @param value A value from 1 to 3999
+     * @return The shared Elbonian string for the value
+     */
+    static String toElbonian(int value) {
+        String numeral = ELBONIAN[value];
+        if (numeral == null) {
+            // Racing threads may each spell the value; the strings are equal, and immutable so either is safe
+            numeral = spell(value);
+            ELBONIAN[value] = numeral;
+        }
+        return numeral;
+    }
+
+    /**
+     * Returns the position of a character in SYMBOLS.
+     *
+     * @param c A character
+     * @return The index of the character in SYMBOLS, or -1 if it is not an Elbonian numeral
+     */
+    static int symbolIndex(char c) {
+        return c < SYMBOL_INDEX.length ? SYMBOL_INDEX[c] : -1;
+    }
+
+    /**
+     * Follows the trie from a state along one character.
+     *
+     * @param state The current trie state
+     * @param c The next character of the numeral
+     * @return The next state, or NO_STATE if no Elbonian numeral continues this way
+     */
+    static int next(int state, char c) {
+        int symbol = symbolIndex(c);
+        if (symbol < 0) {
+            return NO_STATE;
+        }
+        int target = Trie.NEXT[state * SYMBOLS.length() + symbol];
+        return target == 0 ? NO_STATE : target;
+    }
+
+    /**
+     * Returns the value of the numeral that ends at a trie state.
+     *
+     * @param state A trie state
+     * @return The value spelled by the path to the state, or 0 if the path is not a complete numeral
+     */
+    static int valueAt(int state) {
+        return Trie.VALUE[state];
+    }
+
+    /**
+     * Looks up the value of a canonical Elbonian numeral.
+     *
+     * @param text The characters holding the numeral
+     * @param from The index of the first character (inclusive)
+     * @param to The index after the last character (exclusive)
+     * @return The value of the numeral, or 0 if the range is not a canonical Elbonian numeral
+     */
+    static int lookup(CharSequence text, int from, int to) {
+        int state = ROOT;
+        for (int i = from; i < to; i++) {
+            state = next(state, text.charAt(i));
+            if (state == NO_STATE) {
+                return 0;
+            }
+        }
+        return Trie.VALUE[state];
+    }
+
+    // Spells a value from its digit groups; a builder rather than string concatenation, which would have to
+    // bootstrap an invokedynamic call site during startup
+    private static String spell(int value) {
+        return new StringBuilder(16)
+                .append(DIGIT_GROUPS[3][value / 1000])
+                .append(DIGIT_GROUPS[2][value / 100 % 10])
+                .append(DIGIT_GROUPS[1][value / 10 % 10])
+                .append(DIGIT_GROUPS[0][value % 10])
+                .toString();
+    }
+
+    // Holds the trie, so that it is only built when the first numeral is parsed
+    private static final class Trie {
+
+        // Trie transitions, indexed by state * SYMBOLS.length() + symbol index; 0 means no transition
+        static final short[] NEXT;
+
+        // The value spelled by the path to each trie state, or 0 if no numeral ends there
+        static final short[] VALUE;
+
+        static {
+            // Insert every numeral into a growable trie, then trim the arrays to the states actually used
+            int width = SYMBOLS.length();
+            short[] next = new short[1024 * width];
+            short[] values = new short[1024];
+            int states = 1;
+            for (int value = MIN_VALUE; value <= MAX_VALUE; value++) {
+                String numeral = toElbonian(value);
+                int state = ROOT;
+                for (int i = 0; i < numeral.length(); i++) {
+                    int slot = state * width + SYMBOL_INDEX[numeral.charAt(i)];
+                    if (next[slot] == 0) {
+                        if (states == values.length) {
+                            values = Arrays.copyOf(values, states * 2);
+                            next = Arrays.copyOf(next, states * 2 * width);
+                        }
+                        next[slot] = (short) states++;
+                    }
+                    state = next[slot];
+                }
+                values[state] = (short) value;
+            }
+            NEXT = Arrays.copyOf(next, states * width);
+            VALUE = Arrays.copyOf(values, states);
+        }
+    }
+}
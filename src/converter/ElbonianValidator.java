@@ -0,0 +1,289 @@
+package converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Validates a number written in either the Elbonian or Arabic form in a single left-to-right pass.
+ * Elbonian input is walked through the trie in ElbonianTable, which is a deterministic automaton that
+ * accepts exactly the canonical numerals. Arabic input is accumulated digit by digit. Leading and
+ * trailing spaces are skipped by index, so nothing is copied.
+ *
+ * The result of a validation is packed into an int so that no object has to be created: a positive
+ * result is the value of the number, and a negative result is an error that can be decoded with
+ * ConversionResult.
+ *
+ * @version 3/18/17
+ */
+final class ElbonianValidator {
+
+    // How many times each numeral of ElbonianTable.SYMBOLS may appear in one number
+    private static final int[] LIMITS = {3, 2, 1, 3, 2, 1, 3, 2, 1, 3};
+
+    private ElbonianValidator() {
+    }
+
+    /**
+     * Validates the number held in a range of characters, ignoring leading and trailing spaces.
+     *
+     * @param text The characters holding the number
+     * @param from The index of the first character (inclusive)
+     * @param to The index after the last character (exclusive)
+     * @return The value of the number if it is valid, otherwise a negative ConversionResult error
+     */
+    static int validate(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return ConversionResult.error(ConversionResult.EMPTY, from);
+        }
+        if (isArabicStart(text.charAt(from))) {
+            return validateArabic(text, from, to);
+        }
+        return validateElbonian(text, from, to);
+    }
+
+    /**
+     * Validates the number held in a range of ASCII bytes, ignoring leading and trailing spaces. Each byte
+     * is read as the character of the same code, from 0 to 255, so the result is the same as validating an
+     * AsciiSequence over the bytes, without creating one.
+     *
+     * @param bytes The bytes holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return The value of the number if it is valid, otherwise a negative ConversionResult error
+     */
+    static int validate(byte[] bytes, int from, int to) {
+        while (from < to && (bytes[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (bytes[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return ConversionResult.error(ConversionResult.EMPTY, from);
+        }
+        if (isArabicStart((char) (bytes[from] & 0xFF))) {
+            return validateArabic(bytes, from, to);
+        }
+        return validateElbonian(bytes, from, to);
+    }
+
+    /**
+     * Validates the number held in a range of ASCII bytes of a buffer, ignoring leading and trailing spaces.
+     * The range is given by absolute indexes, so the buffer's position and limit are neither used nor changed.
+     *
+     * @param buffer The buffer holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return The value of the number if it is valid, otherwise a negative ConversionResult error
+     */
+    static int validate(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return ConversionResult.error(ConversionResult.EMPTY, from);
+        }
+        if (isArabicStart((char) (buffer.get(from) & 0xFF))) {
+            return validateArabic(buffer, from, to);
+        }
+        return validateElbonian(buffer, from, to);
+    }
+
+    /**
+     * Checks whether a range holds a number in the Arabic form, judging by its first character that is
+     * not a space. This is the same test validate uses to choose between the two forms.
+     *
+     * @param text The characters holding the number
+     * @param from The index of the first character (inclusive)
+     * @param to The index after the last character (exclusive)
+     * @return True if the number starts with a digit or a sign
+     */
+    static boolean isArabic(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c > ' ') {
+                return isArabicStart(c);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a range of ASCII bytes holds a number in the Arabic form, reading the bytes as
+     * validate(byte[], int, int) does.
+     *
+     * @param bytes The bytes holding the number
+     * @param from The index of the first byte (inclusive)
+     * @param to The index after the last byte (exclusive)
+     * @return True if the number starts with a digit or a sign
+     */
+    static boolean isArabic(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = (char) (bytes[i] & 0xFF);
+            if (c > ' ') {
+                return isArabicStart(c);
+            }
+        }
+        return false;
+    }
+
+    // The character a number starts with, after any spaces, decides its form
+    private static boolean isArabicStart(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+';
+    }
+
+    // The loops below are the same for each kind of input; only the way a character is read differs
+
+    private static int validateArabic(CharSequence text, int from, int to) {
+        boolean negative = text.charAt(from) == '-';
+        int start = from;
+        if (text.charAt(from) == '-' || text.charAt(from) == '+') {
+            from++;
+            if (from == to) {
+                return ConversionResult.error(ConversionResult.BAD_CHARACTER, start);
+            }
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return arabicError(c, i);
+            }
+            value = accumulate(value, c);
+        }
+        return arabicResult(negative, value, start);
+    }
+
+    private static int validateArabic(byte[] bytes, int from, int to) {
+        boolean negative = bytes[from] == '-';
+        int start = from;
+        if (bytes[from] == '-' || bytes[from] == '+') {
+            from++;
+            if (from == to) {
+                return ConversionResult.error(ConversionResult.BAD_CHARACTER, start);
+            }
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = (char) (bytes[i] & 0xFF);
+            if (c < '0' || c > '9') {
+                return arabicError(c, i);
+            }
+            value = accumulate(value, c);
+        }
+        return arabicResult(negative, value, start);
+    }
+
+    private static int validateArabic(ByteBuffer buffer, int from, int to) {
+        boolean negative = buffer.get(from) == '-';
+        int start = from;
+        if (buffer.get(from) == '-' || buffer.get(from) == '+') {
+            from++;
+            if (from == to) {
+                return ConversionResult.error(ConversionResult.BAD_CHARACTER, start);
+            }
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = (char) (buffer.get(i) & 0xFF);
+            if (c < '0' || c > '9') {
+                return arabicError(c, i);
+            }
+            value = accumulate(value, c);
+        }
+        return arabicResult(negative, value, start);
+    }
+
+    // Adds a digit, but stops accumulating once the value is out of bounds so it cannot overflow; the
+    // caller keeps looking for bad characters
+    private static int accumulate(int value, char digit) {
+        return value <= ElbonianTable.MAX_VALUE ? value * 10 + (digit - '0') : value;
+    }
+
+    private static int arabicError(char c, int position) {
+        return ConversionResult.error((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')
+                ? ConversionResult.MIXED_FORMS : ConversionResult.BAD_CHARACTER, position);
+    }
+
+    private static int arabicResult(boolean negative, int value, int start) {
+        if (negative || value < ElbonianTable.MIN_VALUE || value > ElbonianTable.MAX_VALUE) {
+            return ConversionResult.error(ConversionResult.OUT_OF_BOUNDS, start);
+        }
+        return value;
+    }
+
+    private static int validateElbonian(CharSequence text, int from, int to) {
+        int state = ElbonianTable.ROOT;
+        // Two bits per numeral, counting how often each one has been seen so far
+        int counts = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            int next = ElbonianTable.next(state, c);
+            if (next == ElbonianTable.NO_STATE) {
+                return elbonianError(c, counts, i);
+            }
+            counts += 1 << (2 * ElbonianTable.symbolIndex(c));
+            state = next;
+        }
+        return elbonianResult(state, to);
+    }
+
+    private static int validateElbonian(byte[] bytes, int from, int to) {
+        int state = ElbonianTable.ROOT;
+        int counts = 0;
+        for (int i = from; i < to; i++) {
+            char c = (char) (bytes[i] & 0xFF);
+            int next = ElbonianTable.next(state, c);
+            if (next == ElbonianTable.NO_STATE) {
+                return elbonianError(c, counts, i);
+            }
+            counts += 1 << (2 * ElbonianTable.symbolIndex(c));
+            state = next;
+        }
+        return elbonianResult(state, to);
+    }
+
+    private static int validateElbonian(ByteBuffer buffer, int from, int to) {
+        int state = ElbonianTable.ROOT;
+        int counts = 0;
+        for (int i = from; i < to; i++) {
+            char c = (char) (buffer.get(i) & 0xFF);
+            int next = ElbonianTable.next(state, c);
+            if (next == ElbonianTable.NO_STATE) {
+                return elbonianError(c, counts, i);
+            }
+            counts += 1 << (2 * ElbonianTable.symbolIndex(c));
+            state = next;
+        }
+        return elbonianResult(state, to);
+    }
+
+    // Tells why the trie has no way on from a character: it is no numeral at all, or a numeral out of place
+    private static int elbonianError(char c, int counts, int position) {
+        int symbol = ElbonianTable.symbolIndex(c);
+        if (symbol < 0) {
+            return ConversionResult.error(c >= '0' && c <= '9'
+                    ? ConversionResult.MIXED_FORMS : ConversionResult.BAD_CHARACTER, position);
+        }
+        int seen = counts >>> (2 * symbol) & 3;
+        return ConversionResult.error(seen >= LIMITS[symbol]
+                ? ConversionResult.REPETITION : ConversionResult.ORDERING, position);
+    }
+
+    private static int elbonianResult(int state, int to) {
+        int value = ElbonianTable.valueAt(state);
+        if (value == 0) {
+            // The number ends in a lowercase numeral that is missing its uppercase partner
+            return ConversionResult.error(ConversionResult.ORDERING, to - 1);
+        }
+        return value;
+    }
+}
@@ -8,6 +8,10 @@ import converter.ElbonianArabicConverter;
  * @version 3/18/17
  */
 public class MalformedNumberException extends Exception {
+
+    // Run with -Dconverter.exceptions.stackless=true to skip capturing the stack trace of each exception
+    private static final boolean STACKLESS = Boolean.getBoolean("converter.exceptions.stackless");
+
     /**
      * Constructor with a description message for the malformed number Exception.
      *
@@ -16,4 +20,14 @@ public class MalformedNumberException extends Exception {
     public MalformedNumberException(String message) {
         super(message);
     }
+
+    /**
+     * Captures the stack trace, unless exceptions are stackless.
+     *
+     * @return This exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return STACKLESS ? this : super.fillInStackTrace();
+    }
 }
@@ -8,6 +8,9 @@ package converter.exceptions;
  */
 public class ValueOutOfBoundsException extends Exception {
 
+    // Run with -Dconverter.exceptions.stackless=true to skip capturing the stack trace of each exception
+    private static final boolean STACKLESS = Boolean.getBoolean("converter.exceptions.stackless");
+
     /**
      * Constructor with a descriptive message for the value out of bounds exception.
      *
@@ -17,4 +20,14 @@ public class ValueOutOfBoundsException extends Exception {
         super(message);
     }
 
+    /**
+     * Captures the stack trace, unless exceptions are stackless.
+     *
+     * @return This exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return STACKLESS ? this : super.fillInStackTrace();
+    }
+
 }
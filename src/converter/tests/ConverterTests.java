@@ -1,11 +1,62 @@
 package converter.tests;
 
+import converter.ConversionResult;
+import converter.ConverterMetrics;
+import converter.ElbonianAscii;
+import converter.ElbonianAsyncConverter;
+import converter.ElbonianBulkValidator;
+import converter.ElbonianCli;
+import converter.ElbonianExtended;
+import converter.ElbonianColumn;
 import converter.ElbonianArabicConverter;
+import converter.ElbonianFileConverter;
+import converter.ElbonianLoadGenerator;
+import converter.ElbonianNumber;
+import converter.ElbonianProcessor;
+import converter.ElbonianRange;
+import converter.ElbonianServer;
+import converter.ElbonianSort;
 import converter.exceptions.MalformedNumberException;
 import converter.exceptions.ValueOutOfBoundsException;
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Test cases for the ElbonianArabicConverter class.
@@ -82,6 +133,19 @@ public class ConverterTests {
 
 
 
+    @Test
+    public void ElbonianToArabicSampleTest6() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianArabicConverter converter = new ElbonianArabicConverter("MMMDdDLlLVvV");
+        assertEquals(3999, converter.toArabic());
+    }
+    @Test
+    public void ArabicToElbonianTestSample8() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianArabicConverter converter = new ElbonianArabicConverter("2048");
+        assertEquals("MMlLVIII", converter.toElbonian());
+    }
+
+
+
     @Test(expected = MalformedNumberException.class)
     public void malformedNumberTest() throws MalformedNumberException, ValueOutOfBoundsException {
         throw new MalformedNumberException("TEST");
@@ -101,4 +165,897 @@ public class ConverterTests {
     public void valueOutOfBoundsTest3() throws MalformedNumberException, ValueOutOfBoundsException {
         throw new ValueOutOfBoundsException("-1");
     }
+
+    @Test(expected = MalformedNumberException.class)
+    public void malformedNumberTest2() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("IIII");
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void malformedNumberTest3() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("IV");
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void malformedNumberTest4() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("MCAT");
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void malformedNumberTest5() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("12X");
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void malformedNumberTest6() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("9 9");
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void malformedNumberTest7() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("Xv");
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void valueOutOfBoundsTest4() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter(" 4000 ");
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void valueOutOfBoundsTest5() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("0");
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void valueOutOfBoundsTest6() throws MalformedNumberException, ValueOutOfBoundsException {
+        new ElbonianArabicConverter("-1");
+    }
+
+    @Test
+    public void parseElbonianTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        String record = "12;  MMMdDX ;vV";
+        assertEquals(3410, ElbonianArabicConverter.parseElbonian(record, 3, 12));
+        assertEquals(12, ElbonianArabicConverter.parseElbonian(record, 0, 2));
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void parseElbonianTest2() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianArabicConverter.parseElbonian("a   b", 1, 4);
+    }
+
+    @Test
+    public void formatElbonianTest() throws ValueOutOfBoundsException {
+        char[] buffer = new char[2 * ElbonianArabicConverter.MAX_ELBONIAN_LENGTH];
+        int end = ElbonianArabicConverter.formatElbonian(3888, buffer, 0);
+        end = ElbonianArabicConverter.formatElbonian(4, buffer, end);
+        assertEquals("MMMDCCCLXXXVIIIvV", new String(buffer, 0, end));
+        assertEquals("dDlLvV", ElbonianArabicConverter.formatElbonian(444, new StringBuilder()).toString());
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void formatElbonianTest2() throws ValueOutOfBoundsException {
+        ElbonianArabicConverter.formatElbonian(4000, new StringBuilder());
+    }
+
+    @Test
+    public void bulkToElbonianTest() {
+        BitSet failures = new BitSet();
+        String[] numerals = ElbonianArabicConverter.toElbonian(new int[]{4, 0, 1111, 4000}, failures);
+        assertArrayEquals(new String[]{"vV", null, "MCXI", null}, numerals);
+        assertEquals("{1, 3}", failures.toString());
+    }
+
+    @Test
+    public void bulkToArabicTest() {
+        BitSet failures = new BitSet();
+        int[] values = ElbonianArabicConverter.toArabic(new CharSequence[]{" XV", "IIII", "12", "5000"}, failures);
+        assertArrayEquals(new int[]{15, 0, 12, 0}, values);
+        assertEquals("{1, 3}", failures.toString());
+    }
+
+    @Test
+    public void bulkDelimitedTest() {
+        int[] values = {999, -5, 12};
+        BitSet failures = new BitSet();
+        assertEquals("DdDLlLVvV,,XII",
+                ElbonianArabicConverter.toElbonian(values, ',', new StringBuilder(), failures).toString());
+        char[] buffer = new char[values.length * (ElbonianArabicConverter.MAX_ELBONIAN_LENGTH + 1)];
+        int end = ElbonianArabicConverter.toElbonian(values, ',', buffer, 0, failures);
+        assertEquals("DdDLlLVvV,,XII", new String(buffer, 0, end));
+        assertEquals("{1}", failures.toString());
+    }
+
+    @Test
+    public void fileConverterTest() throws IOException {
+        Path input = Files.createTempFile("elbonian", ".txt");
+        Path output = Files.createTempFile("elbonian", ".out");
+        Path rejects = Files.createTempFile("elbonian", ".rejects");
+        try {
+            Files.write(input, "12\r\n MMMdDX \nIIII\n4000\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals(2, new ElbonianFileConverter().convert(input, output, rejects));
+            assertEquals("XII\n3410\n\n\n", new String(Files.readAllBytes(output), StandardCharsets.US_ASCII));
+            assertEquals("3\tIIII\tMalformedNumberException: Too many of one elbonian number (column 4)\n"
+                            + "4\t4000\tValueOutOfBoundsException: The value given is outside 1 to 3999, "
+                            + "not writable in Elbonian (column 1)\n",
+                    new String(Files.readAllBytes(rejects), StandardCharsets.US_ASCII));
+        }
+        finally {
+            Files.delete(input);
+            Files.delete(output);
+            Files.delete(rejects);
+        }
+    }
+
+    @Test
+    public void parallelBulkTest() {
+        int[] values = new int[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 4001;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BitSet failures = new BitSet();
+            String[] numerals = ElbonianArabicConverter.toElbonian(values, failures, pool);
+            BitSet expectedFailures = new BitSet();
+            assertArrayEquals(ElbonianArabicConverter.toElbonian(values, expectedFailures), numerals);
+            assertEquals(expectedFailures, failures);
+
+            failures.clear();
+            int[] parsed = ElbonianArabicConverter.toArabic(numerals, failures, pool);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(expectedFailures.get(i) ? 0 : values[i], parsed[i]);
+            }
+            assertEquals(expectedFailures, failures);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void tryParseTest() {
+        assertEquals(3410, ElbonianArabicConverter.tryParse(" MMMdDX ", 0, 8));
+        int result = ElbonianArabicConverter.tryParse("  XIIII", 0, 7);
+        assertEquals(true, ConversionResult.isError(result));
+        assertEquals(ConversionResult.REPETITION, ConversionResult.rule(result));
+        assertEquals(6, ConversionResult.position(result));
+        result = ElbonianArabicConverter.tryParse("MXM", 0, 3);
+        assertEquals(ConversionResult.ORDERING, ConversionResult.rule(result));
+        assertEquals(2, ConversionResult.position(result));
+        result = ElbonianArabicConverter.tryParse("5000", 0, 4);
+        assertEquals(ConversionResult.OUT_OF_BOUNDS, ConversionResult.rule(result));
+        assertEquals(ConversionResult.EMPTY, ConversionResult.rule(ElbonianArabicConverter.tryParse("   ", 0, 3)));
+    }
+
+    @Test
+    public void tryParseLongInputTest() {
+        int result = ElbonianArabicConverter.tryParse(longInput(), 0, longInput().length());
+        assertEquals(true, ConversionResult.isError(result));
+        assertEquals(ConversionResult.BAD_CHARACTER, ConversionResult.rule(result));
+        assertEquals(ConversionResult.MAX_POSITION, ConversionResult.position(result));
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void parseLongInputTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianArabicConverter.parseElbonian(longInput(), 0, longInput().length());
+    }
+
+    // 2^28 spaces and a bad character, whose index does not fit beside the rule in an error result
+    private static CharSequence longInput() {
+        final int spaces = 1 << 28;
+        return new CharSequence() {
+            @Override
+            public int length() {
+                return spaces + 1;
+            }
+
+            @Override
+            public char charAt(int index) {
+                return index < spaces ? ' ' : 'Q';
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void exceptionCauseTest() {
+        IllegalStateException cause = new IllegalStateException();
+        assertSame(cause, new MalformedNumberException("x").initCause(cause).getCause());
+        assertSame(cause, new ValueOutOfBoundsException("x").initCause(cause).getCause());
+    }
+
+    @Test
+    public void tryFormatTest() {
+        char[] buffer = new char[4];
+        assertEquals(2, ElbonianArabicConverter.tryFormat(4, buffer, 0));
+        int result = ElbonianArabicConverter.tryFormat(8, buffer, 2);
+        assertEquals(ConversionResult.NO_ROOM, ConversionResult.rule(result));
+        assertEquals(2, ConversionResult.position(result));
+        result = ElbonianArabicConverter.tryFormat(0, new StringBuilder());
+        assertEquals(ConversionResult.OUT_OF_BOUNDS, ConversionResult.rule(result));
+        StringBuilder builder = new StringBuilder("x");
+        assertEquals(3, ElbonianArabicConverter.tryFormat(9, builder));
+        assertEquals("xVvV", builder.toString());
+    }
+
+    @Test
+    public void metricsTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        ConverterMetrics metrics = new ConverterMetrics();
+        ElbonianArabicConverter.setListener(metrics);
+        try {
+            ElbonianArabicConverter converter = new ElbonianArabicConverter("MMMdDX");
+            converter.toArabic();
+            converter.toElbonian();
+            converter.toElbonian();
+            for (String number : new String[]{"IIII", "IV", "Q", "4000"}) {
+                try {
+                    new ElbonianArabicConverter(number);
+                }
+                catch (MalformedNumberException | ValueOutOfBoundsException e) {
+                    // counted by the listener
+                }
+            }
+        }
+        finally {
+            ElbonianArabicConverter.setListener(null);
+        }
+        new ElbonianArabicConverter("XV");
+        assertEquals(5, metrics.calls(ConverterMetrics.CONSTRUCT));
+        assertEquals(1, metrics.calls(ConverterMetrics.TO_ARABIC));
+        assertEquals(2, metrics.calls(ConverterMetrics.TO_ELBONIAN));
+        assertEquals(1, metrics.rejections(ConversionResult.REPETITION));
+        assertEquals(1, metrics.rejections(ConversionResult.ORDERING));
+        assertEquals(1, metrics.rejections(ConversionResult.BAD_CHARACTER));
+        assertEquals(1, metrics.rejections(ConversionResult.OUT_OF_BOUNDS));
+    }
+
+    @Test
+    public void asciiEncodeTest() throws IOException, ValueOutOfBoundsException {
+        byte[] bytes = new byte[32];
+        int end = ElbonianAscii.encodeElbonian(1994, bytes, 0);
+        bytes[end++] = ',';
+        end = ElbonianAscii.encodeArabic(1994, bytes, end);
+        assertEquals("MDdDLlLvV,1994", new String(bytes, 0, end, StandardCharsets.US_ASCII));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        ElbonianAscii.encodeArabic(7, ElbonianAscii.encodeElbonian(444, buffer));
+        assertEquals(7, buffer.position());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ElbonianAscii.encodeElbonian(3, out);
+        ElbonianAscii.encodeArabic(3999, out);
+        assertEquals("III3999", out.toString("US-ASCII"));
+    }
+
+    @Test
+    public void asciiDecodeTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+        buffer.put(" dDlLvV ;12;IIII".getBytes(StandardCharsets.US_ASCII)).flip();
+        assertEquals(444, ElbonianAscii.decode(buffer, 0, 8));
+        assertEquals(12, ElbonianAscii.decode(buffer, 9, 11));
+        int result = ElbonianAscii.tryDecode(buffer, 12, 16);
+        assertEquals(ConversionResult.REPETITION, ConversionResult.rule(result));
+        assertEquals(15, ConversionResult.position(result));
+        assertEquals(0, buffer.position());
+        assertEquals(3410, ElbonianAscii.decode("MMMdDX".getBytes(StandardCharsets.US_ASCII), 0, 6));
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void asciiDecodeTest2() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianAscii.decode(new byte[]{'X', (byte) 0xC3, (byte) 0x97}, 0, 3);
+    }
+
+    @Test
+    public void canonicalInstanceTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianArabicConverter converter = ElbonianArabicConverter.of(" 1994 ");
+        assertSame(converter, ElbonianArabicConverter.of("MDdDLlLvV"));
+        assertSame(converter, ElbonianArabicConverter.of("01994"));
+        // A second call with equal text is answered from the text cache
+        assertSame(converter, ElbonianArabicConverter.of(new String(" 1994 ")));
+        assertEquals(1994, converter.toArabic());
+        assertEquals("MDdDLlLvV", converter.toElbonian());
+        assertEquals("", ElbonianArabicConverter.of("  ").toElbonian());
+    }
+
+    @Test(expected = MalformedNumberException.class)
+    public void canonicalInstanceTest2() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianArabicConverter.of("MMMM");
+    }
+
+    @Test
+    public void serverTest() throws Exception {
+        try (ElbonianServer server = new ElbonianServer(0);
+             Socket socket = new Socket("localhost", server.port())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("12, MMMdDX ,IIII\n4000,vV\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertEquals("XII,3410,!" + ConversionResult.REPETITION, in.readLine());
+            assertEquals("!" + ConversionResult.OUT_OF_BOUNDS + ",4", in.readLine());
+
+            ElbonianLoadGenerator.Report report = new ElbonianLoadGenerator("localhost", server.port(), 10, 2, 1).run(2);
+            assertTrue(report.requests() > 0);
+            assertTrue(report.p50Nanos() <= report.p99Nanos());
+        }
+    }
+
+    @Test
+    public void serverTest2() throws Exception {
+        // Many pipelined requests, one longer than the initial read buffer, and one split across two writes
+        StringBuilder longRequest = new StringBuilder();
+        StringBuilder longResponse = new StringBuilder();
+        for (int i = 0; i < 30000; i++) {
+            longRequest.append(i > 0 ? "," : "").append("12");
+            longResponse.append(i > 0 ? "," : "").append("XII");
+        }
+        try (ElbonianServer server = new ElbonianServer(0);
+             Socket socket = new Socket("localhost", server.port())) {
+            OutputStream out = socket.getOutputStream();
+            StringBuilder requests = new StringBuilder();
+            for (int i = 1; i <= 1000; i++) {
+                requests.append(i).append("\r\n");
+            }
+            requests.append(longRequest).append('\n').append("MMMd");
+            out.write(requests.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            for (int i = 1; i <= 1000; i++) {
+                assertEquals(new ElbonianArabicConverter(Integer.toString(i)).toElbonian(), in.readLine());
+            }
+            assertEquals(longResponse.toString(), in.readLine());
+            out.write("DX\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            assertEquals("3410", in.readLine());
+        }
+    }
+
+    @Test
+    public void serverCloseTest() throws Exception {
+        ElbonianServer server = new ElbonianServer(0);
+        try (Socket socket = new Socket("localhost", server.port())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write("vV\n".getBytes(StandardCharsets.US_ASCII));
+            InputStream in = socket.getInputStream();
+            assertEquals('4', in.read());
+            assertEquals('\n', in.read());
+            server.close();
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void processorTest() {
+        ElbonianProcessor processor = new ElbonianProcessor(2);
+        List<ElbonianProcessor.Item> items = new ArrayList<>();
+        List<Flow.Subscription> subscription = new ArrayList<>();
+        boolean[] completed = new boolean[1];
+        processor.subscribe(new Flow.Subscriber<ElbonianProcessor.Item>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription.add(s);
+            }
+
+            @Override
+            public void onNext(ElbonianProcessor.Item item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new AssertionError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        // The executor runs every delivery on the submitting thread, so the test stays deterministic
+        SubmissionPublisher<CharSequence> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        publisher.subscribe(processor);
+        for (String token : new String[]{"12", " vV ", "IIII", "3999", "MMMdDX"}) {
+            publisher.submit(token);
+        }
+        publisher.close();
+
+        assertEquals(0, items.size());
+        subscription.get(0).request(3);
+        assertEquals(3, items.size());
+        subscription.get(0).request(10);
+        assertEquals(5, items.size());
+        assertTrue(completed[0]);
+
+        assertEquals("XII", items.get(0).converted());
+        assertEquals(4, items.get(1).value());
+        assertEquals("4", items.get(1).converted());
+        assertTrue(items.get(2).isError());
+        assertEquals(ConversionResult.REPETITION, ConversionResult.rule(items.get(2).result()));
+        assertEquals("MMMDdDLlLVvV", items.get(3).converted());
+        assertEquals("3410", items.get(4).converted());
+    }
+
+    @Test
+    public void numberArithmeticTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianNumber a = ElbonianNumber.parse("MMMdDX");
+        ElbonianNumber b = ElbonianNumber.parse(" 589 ");
+        assertEquals(3999, a.plus(b).intValue());
+        assertEquals("MMMDdDLlLVvV", a.plus(b).toString());
+        assertEquals(ElbonianNumber.valueOf(2821), a.minus(b));
+        assertSame(ElbonianNumber.valueOf(4), ElbonianNumber.parse("vV"));
+        assertTrue(a.compareTo(b) > 0);
+        assertTrue(b.compareTo(a) < 0);
+        assertEquals(0, a.compareTo(ElbonianNumber.valueOf(3410)));
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void numberArithmeticTest2() throws ValueOutOfBoundsException {
+        ElbonianNumber.valueOf(3000).plus(ElbonianNumber.valueOf(1000));
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void numberArithmeticTest3() throws ValueOutOfBoundsException {
+        ElbonianNumber.valueOf(5).minus(ElbonianNumber.valueOf(5));
+    }
+
+    @Test
+    public void sortTest() {
+        String[] numbers = {"XII", "vV", "XXXX", "12", "MMM", "", "4", "I"};
+        assertEquals(6, ElbonianSort.sort(numbers));
+        assertArrayEquals(new String[] {"I", "vV", "4", "XII", "12", "MMM", "XXXX", ""}, numbers);
+    }
+
+    @Test
+    public void sortTest2() {
+        List<String> numbers = new ArrayList<>(Arrays.asList("3999", "V", "-5", "II", "MMMDdDLlLVvV"));
+        assertEquals(4, ElbonianSort.sort(numbers));
+        assertEquals(Arrays.asList("II", "V", "3999", "MMMDdDLlLVvV", "-5"), numbers);
+    }
+
+    @Test
+    public void distinctTest() {
+        String[] numbers = {"X", "10", "II", "vV", "2", "IIII", "4"};
+        assertArrayEquals(new String[] {"II", "vV", "X"}, ElbonianSort.distinct(numbers));
+    }
+
+    @Test
+    public void distinctTest2() {
+        List<String> numbers = Arrays.asList(" 10 ", "X", null, "II", "vV", "bad", "2", "4");
+        assertEquals(Arrays.asList("II", "vV", " 10 "), ElbonianSort.distinct(numbers));
+    }
+
+    @Test
+    public void histogramTest() {
+        int[] histogram = ElbonianSort.histogram(Arrays.asList("X", "10", "II", "bad", " 10 ", null));
+        assertEquals(4000, histogram.length);
+        assertEquals(3, histogram[10]);
+        assertEquals(1, histogram[2]);
+        assertEquals(2, histogram[0]);
+    }
+
+    @Test
+    public void columnTest() throws MalformedNumberException, ValueOutOfBoundsException, IOException {
+        for (boolean direct : new boolean[] {false, true}) {
+            ElbonianColumn column = new ElbonianColumn(1, direct);
+            column.append(3999);
+            column.append(" XII ");
+            BitSet failures = new BitSet();
+            assertEquals(2, column.appendAll(new String[] {"vV", "IIII", "2", null}, failures));
+            assertEquals(BitSet.valueOf(new long[] {0b1010}), failures);
+            assertEquals(4, column.size());
+            assertEquals(12, column.get(1));
+            assertEquals("vV", column.getElbonian(2));
+            assertArrayEquals(new int[] {3999, 12, 4, 2}, column.toArray());
+            assertEquals("MMMDdDLlLVvV,XII,vV,II", column.exportElbonian(',', new StringBuilder()).toString());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            column.exportAscii((byte) '\n', out);
+            assertEquals("MMMDdDLlLVvV\nXII\nvV\nII\n", out.toString("US-ASCII"));
+
+            ByteBuffer buffer = ByteBuffer.allocate(17);
+            assertEquals(2, column.exportAscii(0, (byte) '\n', buffer));
+            buffer.clear();
+            assertEquals(4, column.exportAscii(2, (byte) '\n', buffer));
+            assertEquals(6, buffer.position());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void columnTest2() throws ValueOutOfBoundsException {
+        ElbonianColumn column = new ElbonianColumn();
+        column.append(1);
+        column.get(1);
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void columnTest3() throws ValueOutOfBoundsException {
+        new ElbonianColumn().append(4000);
+    }
+
+    @Test
+    public void rangeTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianRange range = ElbonianRange.of(1, 3999);
+        ElbonianRange.Cursor cursor = range.cursor();
+        int value = 0;
+        for (String numeral : range) {
+            assertTrue(cursor.advance());
+            assertEquals(++value, cursor.value());
+            assertEquals(numeral, cursor.toString());
+            assertEquals(new ElbonianArabicConverter(Integer.toString(value)).toElbonian(), numeral);
+        }
+        assertEquals(3999, value);
+        assertTrue(!cursor.advance());
+    }
+
+    @Test
+    public void rangeTest2() throws ValueOutOfBoundsException {
+        ElbonianRange range = ElbonianRange.following(1997, 5);
+        assertEquals(5, range.size());
+        assertEquals(Arrays.asList("MDdDLlLVvV", "MM", "MMI", "MMII"), range.stream(false).skip(1).collect(Collectors.toList()));
+        ElbonianRange.Cursor cursor = range.cursor();
+        cursor.advance();
+        cursor.advance();
+        assertEquals("MDdDLlLVvV", cursor.toString());
+        cursor.advance();
+        assertEquals("MM", cursor.toString());
+        assertEquals('M', cursor.charAt(1));
+    }
+
+    @Test
+    public void rangeTest3() throws ValueOutOfBoundsException {
+        ElbonianRange range = ElbonianRange.of(10, 3999);
+        assertEquals(range.stream(false).collect(Collectors.toList()), range.stream(true).collect(Collectors.toList()));
+        assertEquals(1995, range.spliterator().trySplit().estimateSize());
+    }
+
+    // Spells every value from the rules of the number system, independently of the converter's own tables
+    private static Map<String, Integer> referenceNumerals() {
+        String[][] places = {
+                {"", "M", "MM", "MMM"},
+                {"", "C", "CC", "CCC", "dD", "D", "DC", "DCC", "DCCC", "DdD"},
+                {"", "X", "XX", "XXX", "lL", "L", "LX", "LXX", "LXXX", "LlL"},
+                {"", "I", "II", "III", "vV", "V", "VI", "VII", "VIII", "VvV"}
+        };
+        Map<String, Integer> numerals = new HashMap<>();
+        for (int value = 1; value <= 3999; value++) {
+            numerals.put(places[0][value / 1000] + places[1][value / 100 % 10]
+                    + places[2][value / 10 % 10] + places[3][value % 10], value);
+        }
+        return numerals;
+    }
+
+    @Test
+    public void exhaustiveRoundTripTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        Map<String, Integer> reference = referenceNumerals();
+        for (Map.Entry<String, Integer> numeral : reference.entrySet()) {
+            String arabic = Integer.toString(numeral.getValue());
+            assertEquals(arabic, numeral.getKey(), new ElbonianArabicConverter(arabic).toElbonian());
+            assertEquals(numeral.getKey(), (int) numeral.getValue(), new ElbonianArabicConverter(numeral.getKey()).toArabic());
+            assertEquals(numeral.getKey(), numeral.getKey(), new ElbonianArabicConverter(numeral.getKey()).toElbonian());
+            assertEquals(arabic, (int) numeral.getValue(), new ElbonianArabicConverter(arabic).toArabic());
+        }
+    }
+
+    @Test
+    public void malformedCorpusTest() {
+        Map<String, Integer> reference = referenceNumerals();
+        String[] valid = reference.keySet().toArray(new String[0]);
+        String alphabet = "MDdCLlXVvI0123456789+- xm";
+        Random random = new Random(3999);
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder input = new StringBuilder();
+            if (i % 2 == 0) {
+                // Mutate a valid numeral, which mostly gives inputs that are almost right
+                input.append(valid[random.nextInt(valid.length)]);
+                int position = random.nextInt(input.length() + 1);
+                char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        input.insert(position, c);
+                        break;
+                    case 1:
+                        if (position < input.length()) {
+                            input.deleteCharAt(position);
+                        }
+                        break;
+                    default:
+                        if (position < input.length()) {
+                            input.setCharAt(position, c);
+                        }
+                }
+            }
+            else {
+                int length = 1 + random.nextInt(16);
+                for (int j = 0; j < length; j++) {
+                    input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            checkContract(reference, input.toString());
+            checkBytes(input.toString(), direct);
+        }
+        // Bytes from 0x80 up are characters outside the alphabet, never spaces
+        for (int b = 0x80; b <= 0xFF; b++) {
+            checkBytes(" 12" + (char) b, direct);
+            checkBytes((char) b + "XII", direct);
+        }
+    }
+
+    // Checks that decoding the ISO-8859-1 bytes of an input, from an array and from a direct buffer at an
+    // offset, gives the same result as parsing its characters
+    private static void checkBytes(String input, ByteBuffer direct) {
+        int expected = ElbonianArabicConverter.tryParse(input, 0, input.length());
+        byte[] bytes = input.getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(input, expected, ElbonianAscii.tryDecode(bytes, 0, bytes.length));
+        direct.put(3, bytes);
+        int result = ElbonianAscii.tryDecode(direct, 3, 3 + bytes.length);
+        if (ConversionResult.isError(expected)) {
+            assertEquals(input, ConversionResult.rule(expected), ConversionResult.rule(result));
+            assertEquals(input, ConversionResult.position(expected) + 3, ConversionResult.position(result));
+        }
+        else {
+            assertEquals(input, expected, result);
+        }
+    }
+
+    // Checks that the converter accepts exactly the inputs the reference accepts, and throws the right exception otherwise
+    private static void checkContract(Map<String, Integer> reference, String input) {
+        String number = input.trim();
+        Class<? extends Exception> expected = null;
+        int value = 0;
+        if (reference.containsKey(number)) {
+            value = reference.get(number);
+        }
+        else if (number.matches("[+-]?[0-9]+")) {
+            BigInteger arabic = new BigInteger(number);
+            if (number.startsWith("-") || arabic.signum() <= 0 || arabic.compareTo(BigInteger.valueOf(3999)) > 0) {
+                expected = ValueOutOfBoundsException.class;
+            }
+            else {
+                value = arabic.intValue();
+            }
+        }
+        else if (!number.isEmpty()) {
+            expected = MalformedNumberException.class;
+        }
+        try {
+            int actual = new ElbonianArabicConverter(input).toArabic();
+            assertEquals("\"" + input + "\" should have thrown", null, expected);
+            assertEquals("\"" + input + "\"", value, actual);
+        }
+        catch (MalformedNumberException | ValueOutOfBoundsException e) {
+            assertEquals("\"" + input + "\"", expected, e.getClass());
+        }
+    }
+
+    @Test
+    public void throughputTest() throws IOException, MalformedNumberException, ValueOutOfBoundsException {
+        // The baselines are absolute and machine specific, so the gate only runs when asked for, as the perfGate
+        // task of the build does; coverage agents, slow runners or a restricted JIT would fail it for nothing
+        assumeTrue("Set converter.perfGate to run the throughput gate", Boolean.getBoolean("converter.perfGate"));
+        Properties baseline = new Properties();
+        try (InputStream in = ConverterTests.class.getResourceAsStream("throughput-baseline.properties")) {
+            assertNotNull("throughput-baseline.properties is missing from the test classpath", in);
+            baseline.load(in);
+        }
+        String[] elbonian = new String[4000];
+        String[] arabic = new String[4000];
+        for (int value = 1; value <= 3999; value++) {
+            arabic[value] = Integer.toString(value);
+            elbonian[value] = new ElbonianArabicConverter(arabic[value]).toElbonian();
+        }
+        // The best of several rounds, so a single pause of the machine does not fail the build
+        double toArabic = 0;
+        double toElbonian = 0;
+        for (int round = 0; round < 5; round++) {
+            toArabic = Math.max(toArabic, throughput(elbonian, true));
+            toElbonian = Math.max(toElbonian, throughput(arabic, false));
+        }
+        double minArabic = Double.parseDouble(baseline.getProperty("toArabic"));
+        double minElbonian = Double.parseDouble(baseline.getProperty("toElbonian"));
+        assertTrue(String.format("toArabic ran at %.0f ops/s, below the baseline of %.0f", toArabic, minArabic),
+                toArabic >= minArabic);
+        assertTrue(String.format("toElbonian ran at %.0f ops/s, below the baseline of %.0f", toElbonian, minElbonian),
+                toElbonian >= minElbonian);
+    }
+
+    // Converts every input repeatedly for 200 ms and returns the conversions per second
+    private static double throughput(String[] inputs, boolean toArabic) throws MalformedNumberException, ValueOutOfBoundsException {
+        long operations = 0;
+        long sink = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int value = 1; value <= 3999; value++) {
+                ElbonianArabicConverter converter = new ElbonianArabicConverter(inputs[value]);
+                sink += toArabic ? converter.toArabic() : converter.toElbonian().length();
+            }
+            operations += 3999;
+            elapsed = System.nanoTime() - start;
+        }
+        while (elapsed < 200_000_000L);
+        assertTrue(sink > 0);
+        return operations * 1e9 / elapsed;
+    }
+
+    @Test
+    public void asyncTest() throws InterruptedException, ExecutionException {
+        try (ElbonianAsyncConverter converter = new ElbonianAsyncConverter(16, 4, 50, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<Integer> first = converter.toArabic("MMMdDX");
+            CompletableFuture<Integer> second = converter.toArabic("MMMdDX");
+            CompletableFuture<String> elbonian = converter.toElbonian(" 3999 ");
+            CompletableFuture<String> empty = converter.toElbonian("");
+            CompletableFuture<Integer> repeated = converter.toArabic("IIII");
+            CompletableFuture<Integer> outOfBounds = converter.toArabic("4000");
+            assertEquals(3410, (int) first.get());
+            assertEquals(3410, (int) second.get());
+            assertEquals("MMMDdDLlLVvV", elbonian.get());
+            assertEquals("", empty.get());
+            try {
+                repeated.get();
+                fail("Expected IIII to fail with a MalformedNumberException");
+            }
+            catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof MalformedNumberException);
+            }
+            try {
+                outOfBounds.get();
+                fail("Expected 4000 to fail with a ValueOutOfBoundsException");
+            }
+            catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ValueOutOfBoundsException);
+            }
+        }
+    }
+
+    @Test
+    public void asyncTest2() throws InterruptedException {
+        ElbonianAsyncConverter converter = new ElbonianAsyncConverter();
+        converter.close();
+        try {
+            converter.toArabic("X").get();
+            fail("Expected a closed converter to reject the request");
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void cliTest() throws IOException {
+        PrintStream console = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, "US-ASCII"));
+        try {
+            ElbonianCli.main(new String[] {"3999", " XII ", "", "+4"});
+        }
+        finally {
+            System.setOut(console);
+        }
+        assertEquals(String.join(System.lineSeparator(), "MMMDdDLlLVvV", "12", "", "vV", ""), out.toString("US-ASCII"));
+    }
+
+    @Test
+    public void bulkValidatorTest() {
+        byte[] batch = "XII,12, ,4000,vV,X1,I\u00e9,,MMMDdDLlLVvV,IIII\n".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] kinds = ElbonianBulkValidator.classify(batch, 0, batch.length, (byte) ',');
+        assertArrayEquals(new byte[] {ElbonianBulkValidator.ELBONIAN, ElbonianBulkValidator.ARABIC,
+                ElbonianBulkValidator.EMPTY, ElbonianBulkValidator.ARABIC, ElbonianBulkValidator.ELBONIAN,
+                ElbonianBulkValidator.INVALID, ElbonianBulkValidator.INVALID, ElbonianBulkValidator.EMPTY,
+                ElbonianBulkValidator.ELBONIAN, ElbonianBulkValidator.ELBONIAN}, kinds);
+
+        BitSet failures = new BitSet();
+        int[] values = ElbonianBulkValidator.parse(batch, 0, batch.length, (byte) ',', failures);
+        assertArrayEquals(new int[] {12, 12, 0, 0, 4, 0, 0, 0, 3999, 0}, values);
+        assertEquals(BitSet.valueOf(new long[] {0b1011101100}), failures);
+    }
+
+    @Test
+    public void bulkValidatorTest2() {
+        // Tokens of random bytes, cut at random places across the 64-byte blocks, against decoding each token alone
+        Random random = new Random(21);
+        String alphabet = "MDdCLlXVvI0123456789+- \txm\u00ff";
+        for (int round = 0; round < 200; round++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            List<int[]> tokens = new ArrayList<>();
+            int tokenCount = 1 + random.nextInt(60);
+            int start = 3;
+            out.write('!');
+            out.write('!');
+            out.write('!');
+            for (int i = 0; i < tokenCount; i++) {
+                if (i > 0) {
+                    out.write('\n');
+                    start++;
+                }
+                int length = random.nextInt(random.nextBoolean() ? 6 : 80);
+                for (int j = 0; j < length; j++) {
+                    out.write(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                tokens.add(new int[] {start, start + length});
+                start += length;
+            }
+            byte[] batch = out.toByteArray();
+            ByteBuffer direct = ByteBuffer.allocateDirect(batch.length).put(batch);
+            BitSet failures = new BitSet();
+            BitSet directFailures = new BitSet();
+            int[] values = ElbonianBulkValidator.parse(batch, 3, batch.length, (byte) '\n', failures);
+            int[] directValues = ElbonianBulkValidator.parse(direct, 3, batch.length, (byte) '\n', directFailures);
+            int expectedCount = tokens.get(tokens.size() - 1)[1] == tokens.get(tokens.size() - 1)[0]
+                    ? tokens.size() - 1 : tokens.size();
+            assertEquals(expectedCount, values.length);
+            assertArrayEquals(values, directValues);
+            assertEquals(failures, directFailures);
+            for (int i = 0; i < values.length; i++) {
+                int result = ElbonianAscii.tryDecode(batch, tokens.get(i)[0], tokens.get(i)[1]);
+                assertEquals(ConversionResult.isError(result), failures.get(i));
+                assertEquals(ConversionResult.isError(result) ? 0 : result, values[i]);
+            }
+        }
+    }
+
+    @Test
+    public void extendedTest() throws MalformedNumberException, ValueOutOfBoundsException {
+        assertEquals("MMMDdDLlLVvV", ElbonianExtended.toElbonian(3999));
+        assertEquals("vV.", ElbonianExtended.toElbonian(4000));
+        assertEquals("I.CCXXXvV.DLXVII", ElbonianExtended.toElbonian(1234567));
+        assertEquals("I..", ElbonianExtended.toElbonian(1000000));
+        assertEquals(4000, ElbonianExtended.parseLong("vV."));
+        assertEquals(1234567, ElbonianExtended.parseLong(" I.CCXXXvV.DLXVII "));
+        assertEquals(1000001, ElbonianExtended.parseLong("I..I"));
+        assertEquals(12, ElbonianExtended.parseLong("XII"));
+        assertEquals(5000000000L, ElbonianExtended.parseLong("5000000000"));
+        assertEquals(Long.MAX_VALUE, ElbonianExtended.parseLong(ElbonianExtended.toElbonian(Long.MAX_VALUE)));
+        for (long value = 1; value < 2_000_000; value += 7) {
+            assertEquals(value, ElbonianExtended.parseLong(ElbonianExtended.toElbonian(value)));
+        }
+    }
+
+    @Test
+    public void extendedTest2() throws MalformedNumberException, ValueOutOfBoundsException {
+        BigInteger big = new BigInteger("123456789012345678901234567890");
+        String numeral = ElbonianExtended.toElbonian(big);
+        assertEquals("CXXIII.dDLVI.DCCLXXXVvV.XII.CCClLV.DCLXXVIII.DdDI.CCXXXvV.DLXVII.DCCCLlL", numeral);
+        assertEquals(big, ElbonianExtended.parseBigInteger(numeral));
+        assertEquals(BigInteger.valueOf(4000), ElbonianExtended.parseBigInteger("vV."));
+        assertEquals(big, ElbonianExtended.parseBigInteger(big.toString()));
+    }
+
+    @Test
+    public void extendedTest3() throws ValueOutOfBoundsException {
+        // Separated spellings of small values, empty leading periods, thousands inside periods, bad periods
+        for (String malformed : new String[] {"I.CC", ".I", "..I", "M.", "I.IIII", "I.X1", "", " ", "I.CC?"}) {
+            try {
+                ElbonianExtended.parseLong(malformed);
+                assertTrue(malformed, false);
+            }
+            catch (MalformedNumberException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void extendedTest4() throws MalformedNumberException, ValueOutOfBoundsException {
+        ElbonianExtended.parseLong(ElbonianExtended.toElbonian(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE)));
+    }
+
+    @Test(expected = ValueOutOfBoundsException.class)
+    public void extendedTest5() throws ValueOutOfBoundsException {
+        ElbonianExtended.toElbonian(0);
+    }
+
+    @Test
+    public void extendedTest6() throws MalformedNumberException {
+        try {
+            ElbonianExtended.parseBigInteger("-5");
+            fail("Expected a ValueOutOfBoundsException for a negative number");
+        }
+        catch (ValueOutOfBoundsException e) {
+            assertEquals("The value given is less than 1, not writable in extended Elbonian", e.getMessage());
+        }
+    }
 }
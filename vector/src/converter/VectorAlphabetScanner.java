@@ -0,0 +1,98 @@
+package converter;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Classifies blocks with the vector API, comparing a whole vector of bytes against each class at once. The
+ * block of 64 bytes is covered by one to four vectors, depending on the widest species the hardware has.
+ *
+ * This class is compiled against the jdk.incubator.vector module, and ElbonianBulkValidator only loads it
+ * by name, so the rest of the package runs on JVMs where the module is missing.
+ *
+ * @version 3/18/17
+ */
+final class VectorAlphabetScanner implements AlphabetScanner {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    // The same shape as BYTES, seen as longs of eight lanes each
+    private static final VectorSpecies<Long> LONGS = VectorSpecies.of(long.class, BYTES.vectorShape());
+
+    // Multiplying a long whose bytes are each 0 or 1 by this gathers byte k into bit 56 + k
+    private static final long GATHER = 0x0102040810204080L;
+
+    // Moves the eight bits gathered from each long to the place of its bytes in the vector
+    private static final LongVector PLACES;
+
+    private static final ByteVector ONES = ByteVector.broadcast(BYTES, (byte) 1);
+    private static final ByteVector ZEROS = ByteVector.zero(BYTES);
+
+    // The Elbonian symbols, as bytes
+    private static final byte[] SYMBOL_BYTES = new byte[ElbonianTable.SYMBOLS.length()];
+
+    static {
+        if (BYTES.length() > BLOCK || BLOCK % BYTES.length() != 0) {
+            throw new IllegalStateException("Unsupported vector length " + BYTES.length());
+        }
+        long[] places = new long[LONGS.length()];
+        for (int i = 0; i < places.length; i++) {
+            places[i] = Byte.SIZE * i;
+        }
+        PLACES = LongVector.fromArray(LONGS, places, 0);
+        for (int i = 0; i < SYMBOL_BYTES.length; i++) {
+            SYMBOL_BYTES[i] = (byte) ElbonianTable.SYMBOLS.charAt(i);
+        }
+    }
+
+    VectorAlphabetScanner() {
+    }
+
+    @Override
+    public void scan(byte[] src, int offset, byte delimiter, long[] masks) {
+        long delimiters = 0;
+        long digits = 0;
+        long symbols = 0;
+        long others = 0;
+        for (int lane = 0; lane < BLOCK; lane += BYTES.length()) {
+            ByteVector bytes = ByteVector.fromArray(BYTES, src, offset + lane);
+            VectorMask<Byte> isDelimiter = bytes.eq(delimiter);
+            VectorMask<Byte> isDigit = bytes.compare(VectorOperators.GE, (byte) '0')
+                    .and(bytes.compare(VectorOperators.LE, (byte) '9'))
+                    .or(bytes.eq((byte) '+'))
+                    .or(bytes.eq((byte) '-'));
+            VectorMask<Byte> isSymbol = bytes.eq(SYMBOL_BYTES[0]);
+            for (int i = 1; i < SYMBOL_BYTES.length; i++) {
+                isSymbol = isSymbol.or(bytes.eq(SYMBOL_BYTES[i]));
+            }
+            // Bytes above 127 are negative, so spaces are compared unsigned
+            VectorMask<Byte> isSpace = bytes.compare(VectorOperators.UNSIGNED_LE, (byte) ' ');
+            VectorMask<Byte> isOther = isDelimiter.or(isDigit).or(isSymbol).or(isSpace).not();
+
+            // The delimiter takes precedence over the class the byte would otherwise be in
+            VectorMask<Byte> notDelimiter = isDelimiter.not();
+            delimiters |= bits(isDelimiter) << lane;
+            digits |= bits(isDigit.and(notDelimiter)) << lane;
+            symbols |= bits(isSymbol.and(notDelimiter)) << lane;
+            others |= bits(isOther) << lane;
+        }
+        masks[DELIMITERS] = delimiters;
+        masks[DIGITS] = digits;
+        masks[SYMBOLS] = symbols;
+        masks[OTHERS] = others;
+    }
+
+    // Packs a mask into one bit per lane. VectorMask.toLong does the same, but on Java 17 it is not an
+    // intrinsic and costs several times more than this whole scan.
+    private static long bits(VectorMask<Byte> mask) {
+        return ZEROS.blend(ONES, mask)
+                .reinterpretAsLongs()
+                .mul(GATHER)
+                .lanewise(VectorOperators.LSHR, 56)
+                .lanewise(VectorOperators.LSHL, PLACES)
+                .reduceLanes(VectorOperators.OR);
+    }
+}